@@ -0,0 +1,8 @@
+package action;
+
+/**
+ * Types of actions that can be found in the input files
+ */
+public enum ActionType {
+    COMMAND, QUERY, RECOMMENDATION
+}
@@ -0,0 +1,8 @@
+package action;
+
+/**
+ * Types of commands applied by users
+ */
+public enum CommandType {
+    FAVORITE, VIEW, RATING
+}
@@ -0,0 +1,8 @@
+package action;
+
+/**
+ * Types of objects on which the queries are performed
+ */
+public enum ObjectType {
+    MOVIES, SHOWS, ACTORS, USERS
+}
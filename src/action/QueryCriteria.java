@@ -0,0 +1,9 @@
+package action;
+
+/**
+ * Criteria according to which the queries are performed
+ */
+public enum QueryCriteria {
+    FAVORITE, RATINGS, LONGEST, MOST_VIEWED, FILTER_DESCRIPTION, AWARDS, NUM_RATINGS,
+    AVERAGE
+}
@@ -0,0 +1,8 @@
+package action;
+
+/**
+ * Types of recommendations requested by users
+ */
+public enum RecommendationType {
+    STANDARD, BEST_UNSEEN, FAVORITE, SEARCH, POPULAR
+}
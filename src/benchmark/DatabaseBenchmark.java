@@ -0,0 +1,265 @@
+package benchmark;
+
+import actor.ActorsAwards;
+import databases.MovieData;
+import databases.MyDatabase;
+import databases.SerialData;
+import databases.UserData;
+import fileio.Input;
+import fileio.InputLoader;
+import fileio.UserInputData;
+import main.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing harness for the queries, recommendations and commands of MyDatabase.
+ * Every operation runs on a seeded Dataset, for every combination of the
+ * parameters: a number of warmup calls, then a number of measured calls whose
+ * average time is displayed.
+ * <p>
+ * Arguments(all optional, lists are comma separated):
+ * catalog=1000,10000 users=100,1000 history=10,50 warmup=50 iterations=200 seed=42
+ * <p>
+ * input=file runs the operations once, on the database of an input file(e.g.
+ * written by InputGenerator), instead of the seeded ones.
+ */
+public final class DatabaseBenchmark {
+    private static final String DEFAULT_CATALOG = "1000,10000";
+    private static final String DEFAULT_USERS = "100,1000";
+    private static final String DEFAULT_HISTORY = "10,50";
+    private static final String DEFAULT_WARMUP = "50";
+    private static final String DEFAULT_ITERATIONS = "200";
+    private static final String DEFAULT_SEED = "42";
+    private static final int QUERY_LIMIT = 10;
+    private static final int NUM_SEASONS_RATED = 1;
+    private static final double GRADE = 7.5;
+    private static final int USER_STRIDE = 7;
+    private static final int TITLE_STRIDE = 31;
+
+    /**
+     * Result of every operation, so that the JIT cannot drop the calls
+     */
+    private static int sink;
+
+    /**
+     * for coding style
+     */
+    private DatabaseBenchmark() {
+    }
+
+    /**
+     * One call of a benchmarked operation
+     */
+    @FunctionalInterface
+    private interface Operation {
+        /**
+         * @param db working Database
+         * @param i number of the call, used to pick users, titles and filters
+         * @return result of the call
+         */
+        Object run(MyDatabase db, int i);
+    }
+
+    /**
+     * @param args parameters, see the class description
+     */
+    public static void main(final String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("catalog", DEFAULT_CATALOG);
+        options.put("users", DEFAULT_USERS);
+        options.put("history", DEFAULT_HISTORY);
+        options.put("warmup", DEFAULT_WARMUP);
+        options.put("iterations", DEFAULT_ITERATIONS);
+        options.put("seed", DEFAULT_SEED);
+        options.put("input", "");
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !options.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(option[0], option[1]);
+        }
+
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int iterations = Integer.parseInt(options.get("iterations"));
+        long seed = Long.parseLong(options.get("seed"));
+
+        System.out.printf("%8s %8s %8s  %-30s %14s%n", "catalog", "users", "history",
+                "operation", "ns/op");
+        if (!options.get("input").isEmpty()) {
+            Dataset dataset = new Dataset(new InputLoader(options.get("input"))
+                    .readDataStreaming());
+            Input input = dataset.getInput();
+            long views = 0;
+            for (UserInputData user : input.getUsers()) {
+                views += user.getHistory().size();
+            }
+            run(dataset, String.format("%8d %8d %8d", dataset.getTitles().size(),
+                    input.getUsers().size(), views / Math.max(1, input.getUsers().size())),
+                    warmup, iterations);
+        } else {
+            for (int catalog : parseList(options.get("catalog"))) {
+                for (int users : parseList(options.get("users"))) {
+                    for (int history : parseList(options.get("history"))) {
+                        run(new Dataset(seed, catalog, users, history),
+                                String.format("%8d %8d %8d", catalog, users, history),
+                                warmup, iterations);
+                    }
+                }
+            }
+        }
+        System.out.println("sink " + sink);
+    }
+
+    /**
+     * Measures every operation on a new database built from the dataset
+     */
+    private static void run(final Dataset dataset, final String params, final int warmup,
+                            final int iterations) {
+        for (Map.Entry<String, Operation> operation : operations(dataset).entrySet()) {
+            MyDatabase db = Main.buildDatabase(dataset.getInput());
+            double time = measure(db, operation.getValue(), warmup, iterations);
+            System.out.printf("%s  %-30s %14.0f%n", params, operation.getKey(), time);
+        }
+    }
+
+    /**
+     * @return average time of a measured call, in nanoseconds
+     */
+    private static double measure(final MyDatabase db, final Operation operation,
+                                  final int warmup, final int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            sink += System.identityHashCode(operation.run(db, i));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += System.identityHashCode(operation.run(db, warmup + i));
+        }
+        return (double) (System.nanoTime() - start) / Math.max(1, iterations);
+    }
+
+    /**
+     * Every query criteria(on movies and on shows, where it applies), every
+     * recommendation and every command(the last two only if the dataset has
+     * users, commands only if it also has videos)
+     */
+    private static Map<String, Operation> operations(final Dataset dataset) {
+        List<String> titles = dataset.getTitles();
+        Map<String, Operation> operations = new LinkedHashMap<>();
+
+        operations.put("build", (db, i) -> Main.buildDatabase(dataset.getInput()));
+
+        operations.put("query favorite movies", (db, i) ->
+                db.queryFavoriteMovies(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query favorite shows", (db, i) ->
+                db.queryFavoriteSerials(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query ratings movies", (db, i) ->
+                db.queryRatingMovies(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query ratings shows", (db, i) ->
+                db.queryRatingSerials(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query longest movies", (db, i) ->
+                db.queryLongestMovies(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query longest shows", (db, i) ->
+                db.queryLongestSerials(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query most_viewed movies", (db, i) ->
+                db.queryMostViewedMovies(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query most_viewed shows", (db, i) ->
+                db.queryMostViewedSerials(videoFilters(i), sortType(i), QUERY_LIMIT));
+        operations.put("query filter_description", (db, i) ->
+                db.queryDescriptionActors(filters(null, null, Arrays.asList(
+                        Dataset.WORDS[i % Dataset.WORDS.length],
+                        Dataset.WORDS[(i + 1) % Dataset.WORDS.length]), null), sortType(i)));
+        operations.put("query awards", (db, i) ->
+                db.queryAwardsActors(filters(null, null, null, Collections.singletonList(
+                        ActorsAwards.values()[i % ActorsAwards.values().length]
+                                .name())), sortType(i)));
+        operations.put("query num_ratings", (db, i) ->
+                db.queryUsers(sortType(i), QUERY_LIMIT));
+        operations.put("query average", (db, i) ->
+                db.queryAverageActors(sortType(i), QUERY_LIMIT));
+
+        if (dataset.getInput().getUsers().isEmpty()) {
+            // recommendations and commands need a user
+            return operations;
+        }
+        operations.put("recommendation standard", (db, i) ->
+                db.getStandardRecommendation(user(db, i)));
+        operations.put("recommendation best_unseen", (db, i) ->
+                db.getBestUnseen(user(db, i)));
+        operations.put("recommendation favorite", (db, i) ->
+                db.getMostFavorite(user(db, i)));
+        operations.put("recommendation search", (db, i) ->
+                db.getSearch(user(db, i), Dataset.GENRES[i % Dataset.GENRES.length]));
+        operations.put("recommendation popular", (db, i) ->
+                db.getPopularRecommendation(user(db, i)));
+
+        if (titles.isEmpty()) {
+            return operations;
+        }
+        operations.put("command view", (db, i) -> db.view(user(db, i), title(titles, i)));
+        operations.put("command favorite", (db, i) ->
+                db.addFavorite(user(db, i), title(titles, i)));
+        operations.put("command rating", (db, i) -> {
+            String title = title(titles, i);
+            MovieData movie = db.searchMovie(title);
+            if (movie != null) {
+                return db.rate(user(db, i), movie, GRADE);
+            }
+            SerialData serial = db.searchSerial(title);
+            return db.rate(user(db, i), serial, NUM_SEASONS_RATED, GRADE);
+        });
+        return operations;
+    }
+
+    private static List<Integer> parseList(final String values) {
+        List<Integer> list = new ArrayList<>();
+        for (String value : values.split(",")) {
+            list.add(Integer.parseInt(value.trim()));
+        }
+        return list;
+    }
+
+    private static String sortType(final int i) {
+        return i % 2 == 0 ? "asc" : "desc";
+    }
+
+    private static UserData user(final MyDatabase db, final int i) {
+        return db.getUsers().get(i * USER_STRIDE % db.getUsers().size());
+    }
+
+    private static String title(final List<String> titles, final int i) {
+        return titles.get(i * TITLE_STRIDE % titles.size());
+    }
+
+    /**
+     * Filters on year and genre, one of them missing every other call
+     */
+    private static List<List<String>> videoFilters(final int i) {
+        String year = String.valueOf(Dataset.FIRST_YEAR + i % Dataset.YEARS);
+        String genre = Dataset.GENRES[i % Dataset.GENRES.length];
+        if (i % 2 == 0) {
+            return filters(year, genre, null, null);
+        }
+        return filters(null, genre, null, null);
+    }
+
+    /**
+     * Filters in the format of ActionInputData.getFilters
+     */
+    private static List<List<String>> filters(final String year, final String genre,
+                                              final List<String> words,
+                                              final List<String> awards) {
+        List<List<String>> filters = new ArrayList<>();
+        filters.add(Collections.singletonList(year));
+        filters.add(Collections.singletonList(genre));
+        filters.add(words != null ? words : Collections.singletonList(null));
+        filters.add(awards != null ? awards : Collections.singletonList(null));
+        return filters;
+    }
+}
@@ -0,0 +1,174 @@
+package benchmark;
+
+import actor.ActorsAwards;
+import entertainment.Season;
+import fileio.ActorInputData;
+import fileio.Input;
+import fileio.MovieInputData;
+import fileio.SerialInputData;
+import fileio.UserInputData;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Database used by the benchmarks: either seeded and built in memory(the same
+ * parameters always give the same actors, videos and users) or read from a file.
+ */
+final class Dataset {
+    static final String[] GENRES = {"Drama", "Comedy", "Animation", "Mystery", "Crime",
+        "Thriller", "Action & Adventure", "Adventure", "Sci-Fi & Fantasy", "Action",
+        "Romance", "Fantasy", "History", "Western", "Family", "TV Movie", "War",
+        "Science Fiction", "Horror", "Kids"};
+    static final String[] WORDS = {"actor", "actress", "producer", "director", "award",
+        "film", "television", "series", "american", "british", "comedian", "singer",
+        "writer", "academy", "golden", "globe", "stage", "voice", "role", "debut"};
+    static final int FIRST_YEAR = 1980;
+    static final int YEARS = 40;
+
+    private static final int VIDEOS_PER_ACTOR = 2;
+    private static final int CAST_SIZE = 4;
+    private static final int DESCRIPTION_WORDS = 30;
+    private static final int MAX_GENRES = 3;
+    private static final int MIN_DURATION = 20;
+    private static final int MAX_DURATION = 180;
+    private static final int MAX_SEASONS = 8;
+    private static final int MAX_VIEWS = 5;
+    private static final int MAX_AWARDS = 10;
+    private static final int FAVORITE_EVERY = 4;
+
+    private final Input input;
+    private final List<String> titles = new ArrayList<>();
+
+    /**
+     * @param seed seed of the random generator
+     * @param catalogSize number of videos(half movies, half shows)
+     * @param userCount number of users
+     * @param historySize number of distinct videos seen by every user
+     */
+    Dataset(final long seed, final int catalogSize, final int userCount,
+            final int historySize) {
+        Random random = new Random(seed);
+        int actorCount = Math.max(1, catalogSize / VIDEOS_PER_ACTOR);
+
+        List<ArrayList<String>> filmographies = new ArrayList<>();
+        for (int i = 0; i < actorCount; i++) {
+            filmographies.add(new ArrayList<>());
+        }
+
+        List<MovieInputData> movies = new ArrayList<>();
+        List<SerialInputData> serials = new ArrayList<>();
+        for (int i = 0; i < catalogSize; i++) {
+            boolean isMovie = i % 2 == 0;
+            String title = (isMovie ? "Movie " : "Show ") + i;
+            titles.add(title);
+
+            ArrayList<String> cast = new ArrayList<>();
+            for (int j = 0; j < CAST_SIZE; j++) {
+                int actor = random.nextInt(actorCount);
+                cast.add("Actor " + actor);
+                filmographies.get(actor).add(title);
+            }
+            ArrayList<String> genres = new ArrayList<>();
+            int genreCount = 1 + random.nextInt(MAX_GENRES);
+            for (int j = 0; j < genreCount; j++) {
+                String genre = GENRES[random.nextInt(GENRES.length)];
+                if (!genres.contains(genre)) {
+                    genres.add(genre);
+                }
+            }
+            int year = FIRST_YEAR + random.nextInt(YEARS);
+
+            if (isMovie) {
+                movies.add(new MovieInputData(title, cast, genres, year,
+                        MIN_DURATION + random.nextInt(MAX_DURATION - MIN_DURATION)));
+            } else {
+                int numberOfSeasons = 1 + random.nextInt(MAX_SEASONS);
+                ArrayList<Season> seasons = new ArrayList<>();
+                for (int j = 1; j <= numberOfSeasons; j++) {
+                    seasons.add(new Season(j, MIN_DURATION + random.nextInt(MIN_DURATION)));
+                }
+                serials.add(new SerialInputData(title, cast, genres, numberOfSeasons, seasons,
+                        year));
+            }
+        }
+
+        List<ActorInputData> actors = new ArrayList<>();
+        for (int i = 0; i < actorCount; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j < DESCRIPTION_WORDS; j++) {
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            Map<ActorsAwards, Integer> awards = new EnumMap<>(ActorsAwards.class);
+            for (ActorsAwards award : ActorsAwards.values()) {
+                if (random.nextBoolean()) {
+                    awards.put(award, 1 + random.nextInt(MAX_AWARDS));
+                }
+            }
+            actors.add(new ActorInputData("Actor " + i, description.toString().trim() + ".",
+                    filmographies.get(i), awards));
+        }
+
+        List<UserInputData> users = new ArrayList<>();
+        int seen = Math.min(historySize, catalogSize);
+        for (int i = 0; i < userCount; i++) {
+            Map<String, Integer> history = new LinkedHashMap<>();
+            while (history.size() < seen) {
+                history.put(titles.get(random.nextInt(catalogSize)),
+                        1 + random.nextInt(MAX_VIEWS));
+            }
+            ArrayList<String> favorites = new ArrayList<>();
+            int j = 0;
+            for (String title : history.keySet()) {
+                if (j++ % FAVORITE_EVERY == 0) {
+                    favorites.add(title);
+                }
+            }
+            users.add(new UserInputData("user" + i, i % 2 == 0 ? "PREMIUM" : "BASIC",
+                    history, favorites));
+        }
+
+        input = new Input(actors, users, new ArrayList<>(), movies, serials);
+    }
+
+    /**
+     * Dataset read from an input file(e.g. written by InputGenerator). A list
+     * missing from the file(null in the input) is replaced with an empty one.
+     * @param input data read from the input file
+     */
+    Dataset(final Input input) {
+        this.input = new Input(orEmpty(input.getActors()), orEmpty(input.getUsers()),
+                orEmpty(input.getCommands()), orEmpty(input.getMovies()),
+                orEmpty(input.getSerials()));
+        for (MovieInputData movie : this.input.getMovies()) {
+            titles.add(movie.getTitle());
+        }
+        for (SerialInputData serial : this.input.getSerials()) {
+            titles.add(serial.getTitle());
+        }
+    }
+
+    private static <T> List<T> orEmpty(final List<T> list) {
+        return list == null ? new ArrayList<>() : list;
+    }
+
+    /**
+     *
+     * @return database(without actions)
+     */
+    Input getInput() {
+        return input;
+    }
+
+    /**
+     *
+     * @return titles of all the videos, in catalog order
+     */
+    List<String> getTitles() {
+        return titles;
+    }
+}
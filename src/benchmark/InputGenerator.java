@@ -0,0 +1,534 @@
+package benchmark;
+
+import actor.ActorsAwards;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import common.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates an input file in the format read by InputLoader: actors, movies,
+ * shows, users(with history and favourite) and actions. The same arguments
+ * always give the same file. The file is written as it is generated, so the
+ * memory used does not depend on the number of entities.
+ * <p>
+ * Arguments(all optional):
+ * out=generated.json seed=42 actors=1000 movies=1000 shows=1000 users=1000
+ * actions=1000 history=20 favorites=0.25 premium=0.5 zipf=1.0
+ * genres=Drama:23,Comedy:14,... mix=command:40,query:35,recommendation:25
+ * <p>
+ * history is the average number of distinct videos seen by a user; the videos
+ * seen(and the titles used by the commands) follow a Zipf distribution with
+ * the exponent zipf over a fixed popularity ranking of the catalog, so a few
+ * videos get most of the views. genres and mix are relative weights.
+ */
+public final class InputGenerator {
+    private static final String DEFAULT_GENRES = "Drama:23,Comedy:14,Animation:11,Mystery:7,"
+            + "Crime:6,Thriller:6,Action & Adventure:6,Adventure:5,Sci-Fi & Fantasy:5,"
+            + "Action:4,Romance:4,Fantasy:3,History:3,Western:2,Family:2,TV Movie:2,War:1,"
+            + "Science Fiction:1,Horror:1,Kids:1";
+    private static final String DEFAULT_MIX = Constants.COMMAND + ":40," + Constants.QUERY
+            + ":35," + Constants.RECOMMENDATION + ":25";
+    private static final String[] COMMANDS = {"favorite", "view", "rating"};
+    private static final String[] VIDEO_CRITERIA = {"favorite", "ratings", "longest",
+        "most_viewed"};
+    private static final String[] OTHER_CRITERIA = {Constants.FILTER_DESCRIPTIONS,
+        Constants.AWARDS, Constants.NUM_RATINGS, "average"};
+    private static final String[] RECOMMENDATIONS = {"standard", "best_unseen", "favorite",
+        "search", "popular"};
+    private static final int CAST_SIZE = 4;
+    private static final int MIN_DESCRIPTION_WORDS = 20;
+    private static final int MAX_GENRES = 3;
+    private static final int MIN_DURATION = 20;
+    private static final int MAX_DURATION = 180;
+    private static final int SEASON_DURATION = 40;
+    private static final int MAX_SEASONS = 8;
+    private static final int MAX_VIEWS = 5;
+    private static final int MAX_AWARDS = 10;
+    private static final int MAX_GRADE = 10;
+    private static final int MAX_QUERY_NUMBER = 50;
+    private static final int MAX_FILTER_WORDS = 3;
+    private static final int MAX_FILTER_AWARDS = 2;
+    private static final long POPULARITY_STRIDE = 2_654_435_761L;
+    private static final long MIX_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long MIX_1 = 0xBF58476D1CE4E5B9L;
+    private static final long MIX_2 = 0x94D049BB133111EBL;
+    private static final int MIX_SHIFT_1 = 30;
+    private static final int MIX_SHIFT_2 = 27;
+    private static final int MIX_SHIFT_3 = 31;
+
+    private final Map<String, String> options;
+    private final long seed;
+    private final int actors;
+    private final int movies;
+    private final int shows;
+    private final int users;
+    private final int catalog;
+    private final Random random;
+    private final Zipf popularity;
+    private final long stride;
+    private final String[] genres;
+    private final double[] genreWeights;
+    private final String[] actionTypes;
+    private final double[] actionWeights;
+
+    private InputGenerator(final Map<String, String> options) {
+        this.options = options;
+        this.seed = Long.parseLong(options.get("seed"));
+        this.actors = Integer.parseInt(options.get("actors"));
+        this.movies = Integer.parseInt(options.get("movies"));
+        this.shows = Integer.parseInt(options.get("shows"));
+        this.users = Integer.parseInt(options.get("users"));
+        this.catalog = movies + shows;
+        this.random = new Random(seed);
+        this.popularity = new Zipf(catalog, Double.parseDouble(options.get("zipf")));
+
+        // any stride coprime with the catalog size gives a permutation of the catalog
+        long s = POPULARITY_STRIDE % Math.max(1, catalog);
+        while (catalog > 1 && gcd(s, catalog) != 1) {
+            s++;
+        }
+        this.stride = s;
+
+        Map<String, Double> genreMap = parseWeights(options.get("genres"));
+        this.genres = genreMap.keySet().toArray(new String[0]);
+        this.genreWeights = cumulative(genreMap);
+        Map<String, Double> mixMap = parseWeights(options.get("mix"));
+        this.actionTypes = mixMap.keySet().toArray(new String[0]);
+        this.actionWeights = cumulative(mixMap);
+    }
+
+    /**
+     * @param args parameters, see the class description
+     * @throws IOException in case of exceptions to writing
+     */
+    public static void main(final String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("out", "generated.json");
+        options.put("seed", "42");
+        options.put("actors", "1000");
+        options.put("movies", "1000");
+        options.put("shows", "1000");
+        options.put("users", "1000");
+        options.put("actions", "1000");
+        options.put("history", "20");
+        options.put("favorites", "0.25");
+        options.put("premium", "0.5");
+        options.put("zipf", "1.0");
+        options.put("genres", DEFAULT_GENRES);
+        options.put("mix", DEFAULT_MIX);
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !options.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(option[0], option[1]);
+        }
+
+        new InputGenerator(options).write(new File(options.get("out")));
+    }
+
+    /**
+     * Writes the whole input file
+     * @param file output file
+     * @throws IOException in case of exceptions to writing
+     */
+    private void write(final File file) throws IOException {
+        try (JsonGenerator json = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeObjectFieldStart(Constants.DATABASE);
+
+            json.writeArrayFieldStart(Constants.ACTORS);
+            for (int i = 0; i < actors; i++) {
+                writeActor(json, i);
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart(Constants.MOVIES);
+            for (int i = 0; i < movies; i++) {
+                writeMovie(json, i);
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart(Constants.SHOWS);
+            for (int i = movies; i < catalog; i++) {
+                writeShow(json, i);
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart(Constants.USERS);
+            for (int i = 0; i < users; i++) {
+                writeUser(json, i);
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
+
+            json.writeArrayFieldStart(Constants.ACTIONS);
+            int actions = Integer.parseInt(options.get("actions"));
+            for (int i = 1; i <= actions; i++) {
+                writeAction(json, i);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private void writeActor(final JsonGenerator json, final int actor) throws IOException {
+        json.writeStartObject();
+        json.writeStringField(Constants.NAME, actorName(actor));
+
+        StringBuilder description = new StringBuilder(actorName(actor)).append(" is an");
+        int words = MIN_DESCRIPTION_WORDS + random.nextInt(MIN_DESCRIPTION_WORDS);
+        for (int i = 0; i < words; i++) {
+            description.append(' ').append(Dataset.WORDS[random.nextInt(Dataset.WORDS.length)]);
+        }
+        json.writeStringField(Constants.DESCRIPTION, description.append('.').toString());
+
+        // the videos whose cast contains this actor, see cast
+        json.writeArrayFieldStart(Constants.FILMOGRAPHY);
+        int last = -1;
+        for (long slot = actor; slot < (long) catalog * CAST_SIZE; slot += actors) {
+            int video = (int) (slot / CAST_SIZE);
+            if (video != last) {
+                json.writeString(title(video));
+                last = video;
+            }
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart(Constants.AWARDS);
+        for (ActorsAwards award : ActorsAwards.values()) {
+            if (random.nextBoolean()) {
+                json.writeStartObject();
+                json.writeStringField(Constants.AWARD_TYPE, award.name());
+                json.writeNumberField(Constants.NUMBER_OF_AWARDS, 1 + random.nextInt(MAX_AWARDS));
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private void writeMovie(final JsonGenerator json, final int video) throws IOException {
+        json.writeStartObject();
+        json.writeStringField(Constants.NAME, title(video));
+        json.writeStringField(Constants.YEAR, String.valueOf(year()));
+        json.writeNumberField(Constants.DURATION,
+                MIN_DURATION + random.nextInt(MAX_DURATION - MIN_DURATION));
+        writeGenres(json);
+        json.writeFieldName(Constants.ACTORS);
+        writeCast(json, video);
+        json.writeEndObject();
+    }
+
+    private void writeShow(final JsonGenerator json, final int video) throws IOException {
+        json.writeStartObject();
+        json.writeStringField(Constants.NAME, title(video));
+        json.writeStringField(Constants.YEAR, String.valueOf(year()));
+        json.writeFieldName(Constants.CAST);
+        writeCast(json, video);
+        writeGenres(json);
+
+        int numberOfSeasons = seasons(video);
+        json.writeNumberField(Constants.NUMBER_OF_SEASONS, numberOfSeasons);
+        json.writeArrayFieldStart(Constants.SEASONS);
+        for (int i = 1; i <= numberOfSeasons; i++) {
+            json.writeStartObject();
+            json.writeNumberField(Constants.CURRENT_SEASON, i);
+            json.writeNumberField(Constants.DURATION,
+                    MIN_DURATION + random.nextInt(SEASON_DURATION));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private void writeUser(final JsonGenerator json, final int user) throws IOException {
+        json.writeStartObject();
+        json.writeStringField(Constants.USERNAME, userName(user));
+        json.writeStringField(Constants.SUBSCRIPTION,
+                random.nextDouble() < Double.parseDouble(options.get("premium"))
+                        ? "PREMIUM" : "BASIC");
+
+        // between half and one and a half times the average, at most the whole catalog
+        int average = Integer.parseInt(options.get("history"));
+        int size = Math.min(catalog, average / 2 + random.nextInt(average + 1));
+        Map<Integer, Integer> history = new LinkedHashMap<>();
+        while (history.size() < size) {
+            history.merge(popularVideo(), 1 + random.nextInt(MAX_VIEWS), Integer::sum);
+        }
+
+        double favorites = Double.parseDouble(options.get("favorites"));
+        json.writeArrayFieldStart(Constants.FAVORITE_MOVIES);
+        for (int video : history.keySet()) {
+            if (random.nextDouble() < favorites) {
+                json.writeString(title(video));
+            }
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart(Constants.HISTORY);
+        for (Map.Entry<Integer, Integer> view : history.entrySet()) {
+            json.writeStartObject();
+            json.writeStringField(Constants.NAME, title(view.getKey()));
+            json.writeNumberField(Constants.NUMBER_VIEWS, view.getValue());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private void writeAction(final JsonGenerator json, final int id) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField(Constants.ID, id);
+        String actionType = actionTypes[pick(actionWeights)];
+        json.writeStringField(Constants.ACTION_TYPE, actionType);
+        switch (actionType) {
+            case Constants.COMMAND -> writeCommand(json);
+            case Constants.QUERY -> writeQuery(json);
+            case Constants.RECOMMENDATION -> writeRecommendation(json);
+            default -> throw new IllegalArgumentException("Unknown action type: " + actionType);
+        }
+        json.writeEndObject();
+    }
+
+    private void writeCommand(final JsonGenerator json) throws IOException {
+        String type = COMMANDS[random.nextInt(COMMANDS.length)];
+        int video = popularVideo();
+        json.writeStringField(Constants.TYPE, type);
+        json.writeStringField(Constants.USER, userName(random.nextInt(users)));
+        json.writeStringField(Constants.TITLE, title(video));
+        if (type.equals("rating")) {
+            json.writeNumberField(Constants.GRADE, 1 + random.nextInt(MAX_GRADE));
+            if (video >= movies) {
+                json.writeNumberField(Constants.SEASON, 1 + random.nextInt(seasons(video)));
+            }
+        }
+    }
+
+    private void writeQuery(final JsonGenerator json) throws IOException {
+        String criteria;
+        String objectType;
+        if (random.nextBoolean()) {
+            criteria = VIDEO_CRITERIA[random.nextInt(VIDEO_CRITERIA.length)];
+            objectType = random.nextBoolean() ? Constants.MOVIES : Constants.SHOWS;
+        } else {
+            criteria = OTHER_CRITERIA[random.nextInt(OTHER_CRITERIA.length)];
+            objectType = criteria.equals(Constants.NUM_RATINGS) ? Constants.USERS
+                    : Constants.ACTORS;
+        }
+        boolean isVideoQuery = !objectType.equals(Constants.ACTORS)
+                && !objectType.equals(Constants.USERS);
+
+        json.writeStringField(Constants.OBJECT, objectType);
+        if (criteria.equals(Constants.FILTER_DESCRIPTIONS) || criteria.equals(Constants.AWARDS)) {
+            json.writeNullField(Constants.NUMBER);
+        } else {
+            json.writeNumberField(Constants.NUMBER, 1 + random.nextInt(MAX_QUERY_NUMBER));
+        }
+
+        json.writeObjectFieldStart(Constants.FILTERS);
+        if (isVideoQuery && random.nextBoolean()) {
+            json.writeStringField(Constants.YEAR, String.valueOf(year()));
+        } else {
+            json.writeNullField(Constants.YEAR);
+        }
+        if (isVideoQuery && random.nextBoolean()) {
+            json.writeStringField(Constants.GENRE, genres[pick(genreWeights)]);
+        } else {
+            json.writeNullField(Constants.GENRE);
+        }
+        json.writeFieldName(Constants.WORDS);
+        if (criteria.equals(Constants.FILTER_DESCRIPTIONS)) {
+            List<String> words = new ArrayList<>();
+            int count = 1 + random.nextInt(MAX_FILTER_WORDS);
+            for (int i = 0; i < count; i++) {
+                words.add(Dataset.WORDS[random.nextInt(Dataset.WORDS.length)]);
+            }
+            writeStrings(json, words);
+        } else {
+            json.writeNull();
+        }
+        json.writeFieldName(Constants.AWARDS);
+        if (criteria.equals(Constants.AWARDS)) {
+            List<String> awards = new ArrayList<>();
+            int count = 1 + random.nextInt(MAX_FILTER_AWARDS);
+            for (int i = 0; i < count; i++) {
+                String award = ActorsAwards.values()[
+                        random.nextInt(ActorsAwards.values().length)].name();
+                if (!awards.contains(award)) {
+                    awards.add(award);
+                }
+            }
+            writeStrings(json, awards);
+        } else {
+            json.writeNull();
+        }
+        json.writeEndObject();
+
+        json.writeStringField(Constants.SORT, random.nextBoolean() ? "asc" : "desc");
+        json.writeStringField(Constants.CRITERIA, criteria);
+    }
+
+    private void writeRecommendation(final JsonGenerator json) throws IOException {
+        String type = RECOMMENDATIONS[random.nextInt(RECOMMENDATIONS.length)];
+        json.writeStringField(Constants.TYPE, type);
+        json.writeStringField(Constants.USERNAME, userName(random.nextInt(users)));
+        if (type.equals("search")) {
+            json.writeStringField(Constants.GENRE, genres[pick(genreWeights)]);
+        }
+    }
+
+    private void writeGenres(final JsonGenerator json) throws IOException {
+        List<String> videoGenres = new ArrayList<>();
+        int count = 1 + random.nextInt(MAX_GENRES);
+        for (int i = 0; i < count; i++) {
+            String genre = genres[pick(genreWeights)];
+            if (!videoGenres.contains(genre)) {
+                videoGenres.add(genre);
+            }
+        }
+        json.writeFieldName(Constants.GENRES);
+        writeStrings(json, videoGenres);
+    }
+
+    /**
+     * The cast of a video is the actors of its CAST_SIZE slots, the slots
+     * being dealt to the actors in turn
+     */
+    private void writeCast(final JsonGenerator json, final int video) throws IOException {
+        json.writeStartArray();
+        int last = -1;
+        for (int i = 0; i < CAST_SIZE && actors > 0; i++) {
+            int actor = (int) (((long) video * CAST_SIZE + i) % actors);
+            if (actor != last) {
+                json.writeString(actorName(actor));
+                last = actor;
+            }
+        }
+        json.writeEndArray();
+    }
+
+    private static void writeStrings(final JsonGenerator json, final List<String> values)
+            throws IOException {
+        json.writeStartArray();
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+    }
+
+    /**
+     * @return a video of the catalog, the popular ones being more likely
+     */
+    private int popularVideo() {
+        return (int) (popularity.next(random) * stride % catalog);
+    }
+
+    private int year() {
+        return Dataset.FIRST_YEAR + random.nextInt(Dataset.YEARS);
+    }
+
+    /**
+     * Number of seasons of a show, derived only from the seed and the video,
+     * so that the rating commands can pick a valid season
+     */
+    private int seasons(final int video) {
+        return 1 + (int) Long.remainderUnsigned(mix(seed + video * MIX_GAMMA), MAX_SEASONS);
+    }
+
+    private String title(final int video) {
+        return video < movies ? "Movie " + video : "Show " + (video - movies);
+    }
+
+    private static String actorName(final int actor) {
+        return "Actor " + actor;
+    }
+
+    private static String userName(final int user) {
+        return "user" + user;
+    }
+
+    /**
+     * @return index of an interval of the cumulative weights, picked at random
+     */
+    private int pick(final double[] cumulativeWeights) {
+        double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private static Map<String, Double> parseWeights(final String weights) {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (String weight : weights.split(",")) {
+            int separator = weight.lastIndexOf(':');
+            map.put(weight.substring(0, separator).trim(),
+                    Double.parseDouble(weight.substring(separator + 1)));
+        }
+        return map;
+    }
+
+    private static double[] cumulative(final Map<String, Double> weights) {
+        double[] result = new double[weights.size()];
+        double sum = 0;
+        int i = 0;
+        for (double weight : weights.values()) {
+            sum += weight;
+            result[i++] = sum;
+        }
+        return result;
+    }
+
+    private static long gcd(final long a, final long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> MIX_SHIFT_1)) * MIX_1;
+        z = (z ^ (z >>> MIX_SHIFT_2)) * MIX_2;
+        return z ^ (z >>> MIX_SHIFT_3);
+    }
+
+    /**
+     * Zipf distribution over the ranks 0..n-1, sampled in constant time by
+     * inverting the continuous(bounded Pareto) approximation of its CDF
+     */
+    private static final class Zipf {
+        private final int n;
+        private final double exponent;
+
+        Zipf(final int n, final double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+        }
+
+        long next(final Random random) {
+            double u = random.nextDouble();
+            double x;
+            if (Math.abs(exponent - 1) < Double.MIN_NORMAL) {
+                x = Math.pow(n + 1, u);
+            } else {
+                double power = 1 - exponent;
+                x = Math.pow((Math.pow(n + 1, power) - 1) * u + 1, 1 / power);
+            }
+            return Math.min(n - 1, Math.max(0, (long) x - 1));
+        }
+    }
+}
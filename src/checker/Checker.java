@@ -1,14 +1,23 @@
 package checker;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import common.Constants;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Checker to verify the correctness of the tests.
@@ -136,8 +145,146 @@ public final class Checker {
         }
 
         System.out.println("-----------------------------");
-        System.out.println("TOTAL = " + score + "/80");
+        System.out.println("TOTAL = " + score + "/" + maxScore(inputDir));
     }
 
 
+    /**
+     * Same as iterateFiles, but every output/reference pair is verified on its
+     * own, in parallel, by reading both files record by record and stopping at
+     * the first difference(see compareStreaming). The verdict of a file is
+     * displayed as soon as it is known, so the files may appear in any order.
+     * @param dirOutPath output directory path
+     * @param dirRefPath references directory path
+     * @param inputPath input directory path
+     * @throws IOException if the thread is interrupted while waiting for the verdicts
+     */
+    public void iterateFilesParallel(final String dirOutPath, final String dirRefPath,
+                                     final String inputPath) throws IOException {
+        File[] directoryList = new File(dirOutPath).listFiles();
+        File[] directoryRef = new File(dirRefPath).listFiles();
+        File[] inputDir = new File(inputPath).listFiles();
+
+        int score = 0;
+        if (directoryList != null && directoryRef != null && inputDir != null
+                && directoryList.length == directoryRef.length && directoryList.length > 0) {
+            Arrays.sort(directoryList);
+            Arrays.sort(directoryRef);
+            Arrays.sort(inputDir);
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            int threads = Math.min(Runtime.getRuntime().availableProcessors(),
+                    directoryList.length);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CompletionService<Integer> verdicts = new ExecutorCompletionService<>(pool);
+            try {
+                for (int i = 0; i < directoryList.length; i++) {
+                    File out = directoryList[i];
+                    File ref = directoryRef[i];
+                    String name = inputDir[i].getName();
+                    verdicts.submit(() -> printVerdict(name,
+                            compareStreaming(objectMapper, ref, out, name)));
+                }
+                for (int i = 0; i < directoryList.length; i++) {
+                    score += verdicts.take().get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while checking the files");
+            } catch (ExecutionException e) {
+                // printVerdict and compareStreaming do not throw
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        System.out.println("-----------------------------");
+        System.out.println("TOTAL = " + score + "/" + maxScore(inputDir));
+    }
+
+    /**
+     *
+     * @param name name of the input file of a test
+     * @return points given for the test when it passes
+     */
+    private static int pointsFor(final String name) {
+        if (name.contains(Constants.LARGE) || name.contains(Constants.NO_VALUES)) {
+            return Constants.LARGE_TEST;
+        }
+        return Constants.SINGLE_TEST;
+    }
+
+    /**
+     *
+     * @param inputDir input files of the tests that were found, may be null
+     * @return points obtained if every test passes
+     */
+    private static int maxScore(final File[] inputDir) {
+        int max = 0;
+        if (inputDir != null) {
+            for (File file : inputDir) {
+                max += pointsFor(file.getName());
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Reads the two files in parallel, one QueryTest at a time, without
+     * keeping the lists in memory
+     * @param objectMapper used to read each QueryTest
+     * @param ref reference file
+     * @param out output file
+     * @param name name of the test, used to report a file that cannot be read
+     * @return true if the files have the same queries, in the same order
+     */
+    private boolean compareStreaming(final ObjectMapper objectMapper, final File ref,
+                                     final File out, final String name) {
+        try (JsonParser refParser = objectMapper.getFactory().createParser(ref);
+             JsonParser outParser = objectMapper.getFactory().createParser(out)) {
+            if (refParser.nextToken() != JsonToken.START_ARRAY
+                    || outParser.nextToken() != JsonToken.START_ARRAY) {
+                return false;
+            }
+            while (true) {
+                JsonToken refToken = refParser.nextToken();
+                JsonToken outToken = outParser.nextToken();
+                if (refToken == JsonToken.END_ARRAY || outToken == JsonToken.END_ARRAY) {
+                    return refToken == outToken;
+                }
+                if (refToken == null || outToken == null) {
+                    return false;
+                }
+                QueryTest refQuery = objectMapper.readValue(refParser, QueryTest.class);
+                QueryTest outQuery = objectMapper.readValue(outParser, QueryTest.class);
+                if (!Objects.equals(refQuery, outQuery)) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println(name + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Displays the verdict of a test, in the same format as iterateFiles
+     * @param name name of the test
+     * @param passed true if the output matches the reference
+     * @return points obtained for the test
+     */
+    private int printVerdict(final String name, final boolean passed) {
+        char[] chars = new char[Constants.MAX_LENGTH - name.length()];
+        Arrays.fill(chars, ' ');
+        String s = new String(chars);
+
+        if (!passed) {
+            System.out.println(name + s + "FAILED (+0)");
+            return 0;
+        }
+        int points = pointsFor(name);
+        System.out.println(name + s + "PASSED (+" + points + ")");
+        return points;
+    }
 }
@@ -67,6 +67,8 @@ public final class Constants {
     public static final String XML_PATH = "src/checker/poo_checks.xml";
     public static final String CHECKSTYLE_FILE = "checkstyle.txt";
     public static final String OUT_FILE = "out.txt";
+    public static final String PIPELINE_FLAG = "--pipeline";
+    public static final String PARALLEL_FLAG = "--parallel";
     public static final int MIN_LINES = 2;
     public static final int NUM_CHECK_INFO = 3;
     public static final int MIN_CHECKSTYLE_ERR = 30;
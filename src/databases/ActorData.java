@@ -4,31 +4,61 @@ import actor.ActorsAwards;
 import fileio.ActorInputData;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.Map;
 
 public final class ActorData {
-    private String name;
-    private String careerDescription;
-    private ArrayList<String> filmography;
+    private final String name;
+    private final int id;
+    private final String careerDescription;
+    private final int[] filmographyIds;
+    private final IdDictionary titleIds;
     private final Map<ActorsAwards, Integer> awards;
+    private final int awardMask;
+    private final int numberOfAwards;
     private double rating;
-    private int numberOfAwards;
 
-    public ActorData(final ActorInputData data) {
+    public ActorData(final ActorInputData data, final IdDictionary actorIds,
+                     final IdDictionary titleIds) {
         this.name = data.getName();
+        this.id = actorIds.getId(name);
         this.careerDescription = data.getCareerDescription();
-        this.filmography = data.getFilmography();
-        this.awards = data.getAwards();
+        this.filmographyIds = titleIds.getIds(data.getFilmography());
+        this.titleIds = titleIds;
+        this.awards = new EnumMap<>(ActorsAwards.class);
+        int mask = 0;
+        int total = 0;
+        for (Map.Entry<ActorsAwards, Integer> entry : data.getAwards().entrySet()) {
+            total += entry.getValue();
+            if (entry.getKey() != null) {
+                this.awards.put(entry.getKey(), entry.getValue());
+                mask |= awardBit(entry.getKey());
+            }
+        }
+        this.awardMask = mask;
+        this.numberOfAwards = total;
         this.rating = 0;
-        this.numberOfAwards = 0;
     }
 
-    public int getNumberOfAwards() {
-        return numberOfAwards;
+    /**
+     *
+     * @param award type of award
+     * @return bit of the award in an award mask
+     */
+    public static int awardBit(final ActorsAwards award) {
+        return 1 << award.ordinal();
+    }
+
+    /**
+     *
+     * @return mask with the bits(awardBit) of all the awards of the actor
+     */
+    public int getAwardMask() {
+        return awardMask;
     }
 
-    public void setNumberOfAwards(final int numberOfAwards) {
-        this.numberOfAwards = numberOfAwards;
+    public int getNumberOfAwards() {
+        return numberOfAwards;
     }
 
     public double getRating() {
@@ -43,16 +73,28 @@ public final class ActorData {
         return name;
     }
 
-    public void setName(final String name) {
-        this.name = name;
+    /**
+     *
+     * @return id of the name of the actor
+     */
+    public int getId() {
+        return id;
     }
 
+    /**
+     *
+     * @return titles of the filmography(new list, decoded from the ids)
+     */
     public ArrayList<String> getFilmography() {
-        return filmography;
+        return titleIds.getNames(filmographyIds);
     }
 
-    public void setFilmography(final ArrayList<String> filmography) {
-        this.filmography = filmography;
+    /**
+     *
+     * @return ids of the titles of the filmography, null if it is missing
+     */
+    public int[] getFilmographyIds() {
+        return filmographyIds;
     }
 
     public Map<ActorsAwards, Integer> getAwards() {
@@ -63,15 +105,11 @@ public final class ActorData {
         return careerDescription;
     }
 
-    public void setCareerDescription(final String careerDescription) {
-        this.careerDescription = careerDescription;
-    }
-
     @Override
     public String toString() {
         return "ActorData{" + "name='" + name + '\''
                 + ", careerDescription='" + careerDescription + '\''
-                + ", filmography=" + filmography
+                + ", filmography=" + getFilmography()
                 + ", awards=" + awards + "}";
     }
 }
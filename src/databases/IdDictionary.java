@@ -0,0 +1,94 @@
+package databases;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Dictionary that gives dense int ids(0, 1, 2, ...) to names(titles,
+ * usernames or actor names), in the order they are first seen.
+ * The database keeps every cross-reference between its entities as ids, so
+ * a name is hashed only once, when it is read.
+ */
+public final class IdDictionary {
+    /**
+     * id returned by findId for a name that has no id
+     */
+    public static final int NO_ID = -1;
+
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private final ArrayList<String> names = new ArrayList<>();
+
+    /**
+     *
+     * @param name name to be encoded
+     * @return id of the name, a new one if the name was not seen before
+     */
+    public int getId(final String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     *
+     * @param name name to be searched
+     * @return id of the name, NO_ID if the name was never encoded
+     */
+    public int findId(final String name) {
+        return ids.getOrDefault(name, NO_ID);
+    }
+
+    /**
+     *
+     * @param id id given by getId
+     * @return name with the given id
+     */
+    public String getName(final int id) {
+        return names.get(id);
+    }
+
+    /**
+     *
+     * @return number of ids given so far
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     *
+     * @param list names to be encoded, may be null
+     * @return ids of the names, in the same order, or null for a null list
+     */
+    int[] getIds(final List<String> list) {
+        if (list == null) {
+            return null;
+        }
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getId(list.get(i));
+        }
+        return result;
+    }
+
+    /**
+     *
+     * @param list ids to be decoded, may be null
+     * @return names with the given ids, in the same order, or null for a null list
+     */
+    ArrayList<String> getNames(final int[] list) {
+        if (list == null) {
+            return null;
+        }
+        ArrayList<String> result = new ArrayList<>(list.length);
+        for (int id : list) {
+            result.add(names.get(id));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package databases;
+
+import java.util.Arrays;
+
+/**
+ * Map from int to int, without boxing: the keys are an IntSet and the values
+ * are kept in an array, at the position of their key. Iteration(keyAt,
+ * valueAt) follows the order in which the keys were added.
+ */
+final class IntIntMap {
+    private final IntSet keys;
+    private int[] values;
+
+    /**
+     *
+     * @param expectedSize number of keys expected, the map grows past it if needed
+     */
+    IntIntMap(final int expectedSize) {
+        keys = new IntSet(expectedSize);
+        values = new int[Math.max(1, expectedSize)];
+    }
+
+    /**
+     *
+     * @param key key to be searched
+     * @return true if the key has a value
+     */
+    boolean containsKey(final int key) {
+        return keys.contains(key);
+    }
+
+    /**
+     *
+     * @param key key to be searched
+     * @param defaultValue value returned for a missing key
+     * @return value of the key
+     */
+    int get(final int key, final int defaultValue) {
+        int index = keys.indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     *
+     * @param key key to be set
+     * @param value new value of the key
+     */
+    void put(final int key, final int value) {
+        values(keys.add(key), value);
+    }
+
+    /**
+     * Adds delta to the value of the key(a missing key counts as 0)
+     * @param key key to be updated
+     * @param delta value to be added
+     * @return new value of the key
+     */
+    int add(final int key, final int delta) {
+        int index = keys.add(key);
+        int value = (index < values.length ? values[index] : 0) + delta;
+        values(index, value);
+        return value;
+    }
+
+    /**
+     *
+     * @return number of keys
+     */
+    int size() {
+        return keys.size();
+    }
+
+    /**
+     *
+     * @param index position, from 0 to size - 1
+     * @return key added at the given position
+     */
+    int keyAt(final int index) {
+        return keys.get(index);
+    }
+
+    /**
+     *
+     * @param index position, from 0 to size - 1
+     * @return value of the key added at the given position
+     */
+    int valueAt(final int index) {
+        return values[index];
+    }
+
+    private void values(final int index, final int value) {
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(2 * values.length, index + 1));
+        }
+        values[index] = value;
+    }
+}
@@ -0,0 +1,49 @@
+package databases;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of ints, without boxing
+ */
+final class IntList {
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] elements = new int[MIN_CAPACITY];
+    private int size;
+
+    /**
+     *
+     * @param element element to be added at the end of the list
+     */
+    void add(final int element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * size);
+        }
+        elements[size++] = element;
+    }
+
+    /**
+     *
+     * @param index position, from 0 to size - 1
+     * @return element at the given position
+     */
+    int get(final int index) {
+        return elements[index];
+    }
+
+    /**
+     *
+     * @return last element, the list must not be empty
+     */
+    int last() {
+        return elements[size - 1];
+    }
+
+    /**
+     *
+     * @return number of elements
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,125 @@
+package databases;
+
+import java.util.Arrays;
+
+/**
+ * Set of ints, without boxing: the elements are kept in an array in the order
+ * they were added, and an open-addressing table(linear probing) maps an
+ * element to its position in that array. Elements cannot be removed.
+ */
+final class IntSet {
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int INT_BITS = 32;
+    private static final int MIN_TABLE_BITS = 2;
+
+    private int[] elements;
+    private int size;
+    /**
+     * position of an element in elements plus one, 0 for an empty slot
+     */
+    private int[] table;
+    private int shift;
+
+    /**
+     *
+     * @param expectedSize number of elements expected, the set grows past it if needed
+     */
+    IntSet(final int expectedSize) {
+        elements = new int[Math.max(1, expectedSize)];
+        int bits = MIN_TABLE_BITS;
+        // keeps the table at most half full
+        while ((1 << bits) < 2 * expectedSize) {
+            bits++;
+        }
+        table = new int[1 << bits];
+        shift = INT_BITS - bits;
+    }
+
+    /**
+     *
+     * @param element element to be searched
+     * @return position of the element(in the order of add), -1 if it is missing
+     */
+    int indexOf(final int element) {
+        int mask = table.length - 1;
+        for (int slot = hash(element); table[slot] != 0; slot = (slot + 1) & mask) {
+            if (elements[table[slot] - 1] == element) {
+                return table[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     *
+     * @param element element to be searched
+     * @return true if the element is in the set
+     */
+    boolean contains(final int element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     *
+     * @param element element to be added
+     * @return position of the element(in the order of add), new or already there
+     */
+    int add(final int element) {
+        int index = indexOf(element);
+        if (index >= 0) {
+            return index;
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * size);
+        }
+        elements[size] = element;
+        size++;
+        if (2 * size > table.length) {
+            rehash();
+        } else {
+            insert(size - 1);
+        }
+        return size - 1;
+    }
+
+    /**
+     *
+     * @return number of elements
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @param index position, from 0 to size - 1
+     * @return element added at the given position
+     */
+    int get(final int index) {
+        return elements[index];
+    }
+
+    private void rehash() {
+        table = new int[2 * table.length];
+        shift--;
+        for (int i = 0; i < size; i++) {
+            insert(i);
+        }
+    }
+
+    private void insert(final int index) {
+        int mask = table.length - 1;
+        int slot = hash(elements[index]);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    /**
+     * Fibonacci hashing, spreads the dense ids over the whole table
+     */
+    private int hash(final int element) {
+        return (element * HASH_MULTIPLIER) >>> shift;
+    }
+}
@@ -2,18 +2,16 @@ package databases;
 
 import fileio.MovieInputData;
 
-import java.util.HashMap;
-
-
 public final class MovieData extends VideoData {
     private final int duration;
-    private final HashMap<String, Double> ratings;
+    private final RatingStore ratings;
     private int viewed;
 
-    public MovieData(final MovieInputData movie) {
-        super(movie);
+    public MovieData(final MovieInputData movie, final IdDictionary titleIds,
+                     final IdDictionary actorIds) {
+        super(movie, titleIds, actorIds);
         this.duration = movie.getDuration();
-        this.ratings = new HashMap<>();
+        this.ratings = new RatingStore();
         this.viewed = 0;
     }
 
@@ -29,10 +27,33 @@ public final class MovieData extends VideoData {
         return duration;
     }
 
-    public HashMap<String, Double> getRatings() {
+    /**
+     *
+     * @return grades of the movie
+     */
+    public RatingStore getRatings() {
         return ratings;
     }
 
+    /**
+     *
+     * @param userId id of the user
+     * @return true if the user has graded the movie
+     */
+    public boolean hasRating(final int userId) {
+        return ratings.contains(userId);
+    }
+
+    /**
+     * Adds (or replaces) the grade given by a user and updates overallRating
+     * @param userId id of the user that gives the grade
+     * @param grade value of the grade
+     */
+    public void addRating(final int userId, final double grade) {
+        ratings.put(userId, grade);
+        setOverallRating(ratings.getAverage());
+    }
+
     @Override
     public String toString() {
         return "MovieData{" + super.toString()
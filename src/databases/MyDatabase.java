@@ -1,22 +1,62 @@
 package databases;
 
 
+import action.QueryCriteria;
 import actor.ActorsAwards;
-import entertainment.Season;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 
 public final class MyDatabase {
     private final ArrayList<ActorData> actors = new ArrayList<>();
     private final ArrayList<MovieData> movies = new ArrayList<>();
     private final ArrayList<SerialData> serials = new ArrayList<>();
     private final ArrayList<UserData> users = new ArrayList<>();
+    private final IdDictionary titleIds = new IdDictionary();
+    private final IdDictionary userIds = new IdDictionary();
+    private final IdDictionary actorIds = new IdDictionary();
+    // every video with the title, in the order they were added(titles may repeat)
+    private final ArrayList<ArrayList<MovieData>> moviesByTitle = new ArrayList<>();
+    private final ArrayList<ArrayList<SerialData>> serialsByTitle = new ArrayList<>();
+    private final ArrayList<UserData> usersById = new ArrayList<>();
+    private final ArrayList<ArrayList<VideoData>> videosByActor = new ArrayList<>();
+    private final VideoCatalog<MovieData> movieCatalog =
+            new VideoCatalog<>(MovieData::getDuration, MovieData::getViewed);
+    private final VideoCatalog<SerialData> serialCatalog =
+            new VideoCatalog<>(SerialData::getDuration, SerialData::getViewed);
+    private final RatingOrder ratingOrder = new RatingOrder();
+    private final WordIndex wordIndex = new WordIndex();
+    private final EnumMap<ActorsAwards, ArrayList<ActorData>> actorsByAward =
+            new EnumMap<>(ActorsAwards.class);
+
+    /**
+     *
+     * @return ids of the titles, used when building movies, serials, actors and users
+     */
+    public IdDictionary getTitleIds() {
+        return titleIds;
+    }
+
+    /**
+     *
+     * @return ids of the usernames, used when building users
+     */
+    public IdDictionary getUserIds() {
+        return userIds;
+    }
+
+    /**
+     *
+     * @return ids of the actor names, used when building actors, movies and serials
+     */
+    public IdDictionary getActorIds() {
+        return actorIds;
+    }
 
     /**
      *
@@ -24,6 +64,10 @@ public final class MyDatabase {
      */
     public void add(final ActorData actor) {
         actors.add(actor);
+        wordIndex.add(actor);
+        for (ActorsAwards award : actor.getAwards().keySet()) {
+            actorsByAward.computeIfAbsent(award, k -> new ArrayList<>()).add(actor);
+        }
     }
 
     /**
@@ -32,6 +76,12 @@ public final class MyDatabase {
      */
     public void add(final MovieData movie) {
         movies.add(movie);
+        addToTitleIndex(moviesByTitle, movie.getId(), movie);
+        addToCastIndex(movie);
+        movie.setViewed(countViews(movie.getId()));
+        movie.setAddedToFavorite(countFavorites(movie.getId()));
+        movieCatalog.add(movie);
+        ratingOrder.add(movie, RatingOrder.MOVIES);
     }
 
     /**
@@ -40,6 +90,12 @@ public final class MyDatabase {
      */
     public void add(final SerialData serial) {
         serials.add(serial);
+        addToTitleIndex(serialsByTitle, serial.getId(), serial);
+        addToCastIndex(serial);
+        serial.setViewed(countViews(serial.getId()));
+        serial.setAddedToFavorite(countFavorites(serial.getId()));
+        serialCatalog.add(serial);
+        ratingOrder.add(serial, RatingOrder.SERIALS);
     }
 
     /**
@@ -48,6 +104,15 @@ public final class MyDatabase {
      */
     public void add(final UserData user) {
         users.add(user);
+        putIfAbsent(usersById, user.getId(), user);
+        IntIntMap history = user.getHistoryIds();
+        for (int i = 0; i < history.size(); i++) {
+            addViews(history.keyAt(i), history.valueAt(i));
+        }
+        IntSet favorites = user.getFavoriteIds();
+        for (int i = 0; i < favorites.size(); i++) {
+            addFavorites(favorites.get(i));
+        }
     }
 
     /**
@@ -56,12 +121,7 @@ public final class MyDatabase {
      * @return user if found, else null
      */
     public UserData getUser(final String userName) {
-        for (UserData user : this.getUsers()) {
-            if (user.getUsername().equals(userName)) {
-                return user;
-            }
-        }
-        return null;
+        return get(usersById, userIds.findId(userName));
     }
 
     /**
@@ -70,12 +130,7 @@ public final class MyDatabase {
      * @return movie if found, else null
      */
     public MovieData searchMovie(final String title) {
-        for (MovieData movie : this.getMovies()) {
-            if (movie.getTitle().equals(title)) {
-                return movie;
-            }
-        }
-        return null;
+        return first(get(moviesByTitle, titleIds.findId(title)));
     }
 
     /**
@@ -85,11 +140,7 @@ public final class MyDatabase {
      */
     public SerialData searchSerial(final String title) {
         if (title != null) {
-            for (SerialData serial : this.getSerials()) {
-                if (serial.getTitle().equals(title)) {
-                    return serial;
-                }
-            }
+            return first(get(serialsByTitle, titleIds.findId(title)));
         }
         return null;
     }
@@ -102,13 +153,10 @@ public final class MyDatabase {
      */
     public String view(final UserData user, final String title) {
         if (user != null) {
-            if (user.getHistory().containsKey(title)) {
-                user.getHistory().put(title, user.getHistory().get(title) + 1);
-            } else {
-                user.getHistory().put(title, 1);
-            }
-            return "success -> " + title + " was viewed with total views of "
-                    + user.getHistory().get(title);
+            int titleId = titleIds.getId(title);
+            int views = user.addView(titleId);
+            addViews(titleId, 1);
+            return "success -> " + title + " was viewed with total views of " + views;
         }
         return "FATAL ERROR!";
     }
@@ -121,11 +169,13 @@ public final class MyDatabase {
      */
     public String addFavorite(final UserData user, final String title) {
         if (user != null) {
-            if (user.getHistory().containsKey(title)) {
-                if (user.getFavoriteMovies().contains(title)) {
+            int titleId = titleIds.findId(title);
+            if (titleId != IdDictionary.NO_ID && user.hasSeen(titleId)) {
+                if (user.isFavorite(titleId)) {
                     return "error -> " + title + " is already in favourite list";
                 } else {
-                    user.getFavoriteMovies().add(title);
+                    user.addFavorite(titleId);
+                    addFavorites(titleId);
                     return "success -> " + title + " was added as favourite";
                 }
             } else {
@@ -145,11 +195,14 @@ public final class MyDatabase {
      */
     public String rate(final UserData user, final MovieData movie, final double grade) {
         if (user != null) {
-            if (user.getHistory().containsKey(movie.getTitle())) {
-                if (movie.getRatings().containsKey(user.getUsername())) {
+            if (user.hasSeen(movie.getId())) {
+                if (movie.hasRating(user.getId())) {
                     return "error -> " + movie.getTitle() + " has been already rated";
                 } else {
-                    movie.getRatings().put(user.getUsername(), grade);
+                    movie.addRating(user.getId(), grade);
+                    movieCatalog.update(movie);
+                    ratingOrder.update(movie, RatingOrder.MOVIES);
+                    user.setNumberOfReviews(user.getNumberOfReviews() + 1);
                     return "success -> " + movie.getTitle() + " was rated with " + grade + " by "
                             + user.getUsername();
                 }
@@ -172,12 +225,14 @@ public final class MyDatabase {
      */
     public String rate(final UserData user, final SerialData serial, final int seasonNumber,
                        final double grade) {
-        if (user.getHistory().containsKey(serial.getTitle())) {
-            Season season = serial.getSeasons().get(seasonNumber - 1);
-            if (season.getRatings().containsKey(user.getUsername())) {
+        if (user.hasSeen(serial.getId())) {
+            if (serial.hasRating(seasonNumber, user.getId())) {
                 return "error -> " + serial.getTitle() + " has been already rated";
             } else {
-                season.getRatings().put(user.getUsername(), grade);
+                serial.addRating(seasonNumber, user.getId(), grade);
+                serialCatalog.update(serial);
+                ratingOrder.update(serial, RatingOrder.SERIALS);
+                user.setNumberOfReviews(user.getNumberOfReviews() + 1);
                 return "success -> " + serial.getTitle() + " was rated with " + grade + " by "
                         + user.getUsername();
             }
@@ -189,38 +244,20 @@ public final class MyDatabase {
 
     /**
      * Used to filter movies by year and/or genres
-     * @param list list of movies to be filtered
      * @param filters filters to be applied(only indexes 0(year) and 1(genres) will be used.
+     * @return new list with the movies that match the filters
      */
-    public void filterMovies(final ArrayList<MovieData> list,
-                              final List<List<String>> filters) {
-        if (filters.get(0).get(0) != null) {
-            int year = Integer.parseInt(filters.get(0).get(0));
-            list.removeIf(e -> e.getYear() != year);
-        }
-        if (filters.get(1).get(0) != null) {
-            for (String currentGenre : filters.get(1)) {
-                list.removeIf(e -> !e.getGenres().contains(currentGenre));
-            }
-        }
+    public ArrayList<MovieData> filterMovies(final List<List<String>> filters) {
+        return movieCatalog.filter(filters);
     }
 
     /**
      * Used to filter serials by year and/or genres
-     * @param list list of serials to be filtered
      * @param filters filters to be applied(only indexes 0(year) and 1(genres) will be used.
+     * @return new list with the serials that match the filters
      */
-    public void filterSerials(final ArrayList<SerialData> list,
-                              final List<List<String>> filters) {
-        if (filters.get(0).get(0) != null) {
-            int year = Integer.parseInt(filters.get(0).get(0));
-            list.removeIf(e -> e.getYear() != year);
-        }
-        if (filters.get(1).get(0) != null) {
-            for (String currentGenre : filters.get(1)) {
-                list.removeIf(e -> !e.getGenres().contains(currentGenre));
-            }
-        }
+    public ArrayList<SerialData> filterSerials(final List<List<String>> filters) {
+        return serialCatalog.filter(filters);
     }
 
     /**
@@ -230,21 +267,10 @@ public final class MyDatabase {
      * @param n number of maximum elements expected at output
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryFavoriteMovies(final List<List<String>> filters,
                                              final String sortType, final int n) {
-        ArrayList<MovieData> result = (ArrayList<MovieData>) this.movies.clone();
-        getFavoriteRankingMovies(result);
-        filterMovies(result, filters);
-        result.removeIf(e -> e.getAddedToFavorite() == 0);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByFavorite());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderMovies(result);
-        }
-
+        ArrayList<MovieData> result = movieCatalog.top(filters, QueryCriteria.FAVORITE,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -265,21 +291,10 @@ public final class MyDatabase {
      * @param n maximum number of elements expected as output
      * @return text result
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryRatingMovies(final List<List<String>> filters,
                                               final String sortType, final int n) {
-        ArrayList<MovieData> result = (ArrayList<MovieData>) this.movies.clone();
-        filterMovies(result, filters);
-        getRatingMovies(result);
-
-        result.removeIf(e -> e.getOverallRating() == 0);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByFinalRating());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderMovies(result);
-        }
+        ArrayList<MovieData> result = movieCatalog.top(filters, QueryCriteria.RATINGS,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -299,21 +314,10 @@ public final class MyDatabase {
      * @param n maximum number of elements expected as output
      * @return text result
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryRatingSerials(final List<List<String>> filters,
                                            final String sortType, final int n) {
-        ArrayList<SerialData> result = (ArrayList<SerialData>) this.serials.clone();
-        filterSerials(result, filters);
-        getRatingSerials(result);
-
-        result.removeIf(e -> e.getOverallRating() == 0);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByFinalRating());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderSerials(result);
-        }
+        ArrayList<SerialData> result = serialCatalog.top(filters, QueryCriteria.RATINGS,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -333,21 +337,10 @@ public final class MyDatabase {
      * @param n number of maximum elements expected at output
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryFavoriteSerials(final List<List<String>> filters,
                                               final String sortType, final int n) {
-        ArrayList<SerialData> result = (ArrayList<SerialData>) this.serials.clone();
-        filterSerials(result, filters);
-        getFavoriteRankingSerials(result);
-
-        result.removeIf(e -> e.getAddedToFavorite() == 0);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByFavorite());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderSerials(result);
-        }
+        ArrayList<SerialData> result = serialCatalog.top(filters, QueryCriteria.FAVORITE,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -367,18 +360,10 @@ public final class MyDatabase {
      * @param n number of maximum elements expected at output
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryLongestMovies(final List<List<String>> filters,
                                             final String sortType, final int n) {
-        ArrayList<MovieData> result = (ArrayList<MovieData>) this.movies.clone();
-        filterMovies(result, filters);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByDurationMovie());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderMovies(result);
-        }
+        ArrayList<MovieData> result = movieCatalog.top(filters, QueryCriteria.LONGEST,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -398,19 +383,10 @@ public final class MyDatabase {
      * @param n number of maximum elements expected at output
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryLongestSerials(final List<List<String>> filters,
                                             final String sortType, final int n) {
-        ArrayList<SerialData> result = (ArrayList<SerialData>) this.serials.clone();
-        filterSerials(result, filters);
-        getDurationSerials(result);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByDurationSerial());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderSerials(result);
-        }
+        ArrayList<SerialData> result = serialCatalog.top(filters, QueryCriteria.LONGEST,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -430,20 +406,10 @@ public final class MyDatabase {
      * @param n number of maximum elements expected at output
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryMostViewedMovies(final List<List<String>> filters,
                                                final String sortType, final int n) {
-        ArrayList<MovieData> result = (ArrayList<MovieData>) this.movies.clone();
-        filterMovies(result, filters);
-        getViewedRankingMovies(result);
-        result.removeIf(e -> e.getViewed() == 0);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByViewedMovie());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderMovies(result);
-        }
+        ArrayList<MovieData> result = movieCatalog.top(filters, QueryCriteria.MOST_VIEWED,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -464,20 +430,10 @@ public final class MyDatabase {
      * @param n number of maximum elements expected at output
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryMostViewedSerials(final List<List<String>> filters,
                                                final String sortType, final int n) {
-        ArrayList<SerialData> result = (ArrayList<SerialData>) this.serials.clone();
-        filterSerials(result, filters);
-        getViewedRankingSerials(result);
-        result.removeIf(e -> e.getViewed() == 0);
-
-        result.sort(new Comparators.SortByTitle());
-        result.sort(new Comparators.SortByViewedSerial());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderSerials(result);
-        }
+        ArrayList<SerialData> result = serialCatalog.top(filters, QueryCriteria.MOST_VIEWED,
+                sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -497,28 +453,12 @@ public final class MyDatabase {
      * @param sortType asc/desc
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryDescriptionActors(final List<List<String>> filters,
                                                 final String sortType) {
-        ArrayList<ActorData> result = (ArrayList<ActorData>) this.actors.clone();
-        for (String keyword : filters.get(2)) {
-            Iterator<ActorData> iter = result.iterator();
-            while (iter.hasNext()) {
-                ActorData currentActor = iter.next();
-                Pattern pattern = Pattern.compile("[^a-zA-z]" + keyword + "[^a-zA-z]",
-                                                        Pattern.CASE_INSENSITIVE);
-                Matcher matcher = pattern.matcher(currentActor.getCareerDescription());
-                if (!matcher.find()) {
-                    iter.remove();
-                }
-            }
-        }
+        ArrayList<ActorData> result = wordIndex.search(filters.get(2), this.actors);
 
-        result.sort(new Comparators.SortByName());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderActors(result);
-        }
+        result = TopN.select(result, new Comparators.SortByName(),
+                sortType.equals("desc"), result.size());
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < result.size(); i++) {
@@ -530,46 +470,37 @@ public final class MyDatabase {
         return outText;
     }
 
-    /**
-     * Counts the number of total awards for each actor
-     * @param list list of actors
-     */
-    private void getNumberOfAwardsActor(final ArrayList<ActorData> list) {
-        int numberOfAwards;
-        for (ActorData currentActor : list) {
-            numberOfAwards = 0;
-            for (Map.Entry<ActorsAwards, Integer> entry : currentActor.getAwards().entrySet()) {
-                numberOfAwards += entry.getValue();
-            }
-            currentActor.setNumberOfAwards(numberOfAwards);
-        }
-    }
-
     /**
      * Used on query for awards of actors
      * @param filters filters to be applied on query
      * @param sortType asc/desc
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public StringBuilder queryAwardsActors(final List<List<String>> filters,
                                                 final String sortType) {
-        ArrayList<ActorData> result = (ArrayList<ActorData>) this.actors.clone();
-
         final int positionInFilters = 3;
+        int requiredMask = 0;
+        List<ActorData> candidates = this.actors;
         for (String award : filters.get(positionInFilters)) {
             ActorsAwards awardEnum = ActorsAwards.valueOf(award);
-            result.removeIf(e -> !(e.getAwards().containsKey(awardEnum)));
+            requiredMask |= ActorData.awardBit(awardEnum);
+            List<ActorData> awarded = actorsByAward.getOrDefault(awardEnum, new ArrayList<>());
+            if (awarded.size() < candidates.size()) {
+                candidates = awarded;
+            }
         }
 
-        getNumberOfAwardsActor(result);
-        result.sort(new Comparators.SortByName());
-        result.sort(new Comparators.SortByNumberOfAwards());
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderActors(result);
+        ArrayList<ActorData> result = new ArrayList<>();
+        for (ActorData currentActor : candidates) {
+            if ((currentActor.getAwardMask() & requiredMask) == requiredMask) {
+                result.add(currentActor);
+            }
         }
 
+        result = TopN.select(result, new Comparators.SortByNumberOfAwards()
+                .thenComparing(new Comparators.SortByName()), sortType.equals("desc"),
+                result.size());
+
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < result.size(); i++) {
             outText.append(result.get(i).getName());
@@ -595,13 +526,8 @@ public final class MyDatabase {
 
         result.removeIf(e -> e.getRating() == 0);
 
-        result.sort(new Comparators.SortByName());
-        result.sort(new Comparators.SortByRatingActor());
-
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderActors(result);
-        }
+        result = TopN.select(result, new Comparators.SortByRatingActor()
+                .thenComparing(new Comparators.SortByName()), sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < n & i < result.size(); i++) {
@@ -623,16 +549,10 @@ public final class MyDatabase {
     @SuppressWarnings("unchecked")
     public StringBuilder queryUsers(final String sortType, final int n) {
         ArrayList<UserData> result = (ArrayList<UserData>) this.users.clone();
-        getNumberOfReviewsUsers(result);
         result.removeIf(e -> e.getNumberOfReviews() == 0);
 
-        result.sort(new Comparators.SortByUsername());
-        result.sort(new Comparators.SortByNumberOfReviewsActors());
-
-
-        if (sortType.equals("desc")) {
-            result = reverseOrderUsers(result);
-        }
+        result = TopN.select(result, new Comparators.SortByNumberOfReviewsActors()
+                .thenComparing(new Comparators.SortByUsername()), sortType.equals("desc"), n);
 
         StringBuilder outText = new StringBuilder();
         for (int i = 0; i < result.size() && i < n; i++) {
@@ -651,12 +571,12 @@ public final class MyDatabase {
      */
     public String getStandardRecommendation(final UserData user) {
         for (MovieData currentMovie : this.movies) {
-            if (!user.getHistory().containsKey(currentMovie.getTitle())) {
+            if (!user.hasSeen(currentMovie.getId())) {
                 return "StandardRecommendation result: " + currentMovie.getTitle();
             }
         }
         for (SerialData currentSerial : this.serials) {
-            if (!user.getHistory().containsKey(currentSerial.getTitle())) {
+            if (!user.hasSeen(currentSerial.getId())) {
                 return "StandardRecommendation result: " + currentSerial.getTitle();
             }
         }
@@ -668,26 +588,11 @@ public final class MyDatabase {
      * @param user user that requests the query
      * @return output text
      */
-    @SuppressWarnings("unchecked")
     public String getBestUnseen(final UserData user) {
-        ArrayList<SerialData> copyOfSerials = (ArrayList<SerialData>) this.serials.clone();
-        ArrayList<MovieData> copyOfMovies = (ArrayList<MovieData>) this.movies.clone();
-
-        copyOfMovies.removeIf(e -> user.getHistory().containsKey(e.getTitle()));
-        copyOfSerials.removeIf(e -> user.getHistory().containsKey(e.getTitle()));
-
-        getRatingSerials(copyOfSerials);
-        getRatingMovies(copyOfMovies);
-
-        ArrayList<VideoData> moviesAndSerials = new ArrayList<>();
-        moviesAndSerials.addAll(copyOfMovies);
-        moviesAndSerials.addAll(copyOfSerials);
-
-        moviesAndSerials.sort(new Comparators.SortByFinalRatingDesc());
+        VideoData best = ratingOrder.firstUnseen(user);
 
-        if (moviesAndSerials.size() != 0) {
-            return "BestRatedUnseenRecommendation result: "
-                    + moviesAndSerials.get(0).getTitle();
+        if (best != null) {
+            return "BestRatedUnseenRecommendation result: " + best.getTitle();
         } else {
             return "BestRatedUnseenRecommendation cannot be applied!";
         }
@@ -707,10 +612,9 @@ public final class MyDatabase {
                 ArrayList<VideoData> moviesAndSerials = new ArrayList<>();
                 moviesAndSerials.addAll(this.movies);
                 moviesAndSerials.addAll(this.serials);
-                int finalI = i;
-                moviesAndSerials.removeIf(e -> e.getGenres()
-                        .contains(genresRanking.get(finalI).getKey()));
-                moviesAndSerials.removeIf(e -> user.getHistory().containsKey(e.getTitle()));
+                moviesAndSerials.removeIf(VideoData.withGenres(
+                        Collections.singletonList(genresRanking.get(i).getKey())));
+                moviesAndSerials.removeIf(e -> user.hasSeen(e.getId()));
 
 
 
@@ -732,9 +636,6 @@ public final class MyDatabase {
     private ArrayList<Map.Entry<String, Integer>> getFavoriteGenreRanking() {
         HashMap<String, Integer> genreMap = new HashMap<>();
 
-        getViewedRankingMovies(this.movies);
-        getViewedRankingSerials(this.serials);
-
         for (MovieData currentMovie : this.movies) {
             for (String currentGenre : currentMovie.getGenres()) {
                 if (genreMap.containsKey(currentGenre)) {
@@ -776,11 +677,8 @@ public final class MyDatabase {
             ArrayList<SerialData> copyOfSerials = (ArrayList<SerialData>) this.serials.clone();
             ArrayList<MovieData> copyOfMovies = (ArrayList<MovieData>) this.movies.clone();
 
-            copyOfMovies.removeIf(e -> user.getHistory().containsKey(e.getTitle()));
-            copyOfSerials.removeIf(e -> user.getHistory().containsKey(e.getTitle()));
-
-            getFavoriteRankingSerials(copyOfSerials);
-            getFavoriteRankingMovies(copyOfMovies);
+            copyOfMovies.removeIf(e -> user.hasSeen(e.getId()));
+            copyOfSerials.removeIf(e -> user.hasSeen(e.getId()));
 
             copyOfMovies.removeIf(e -> e.getAddedToFavorite() == 0);
             copyOfSerials.removeIf(e -> e.getAddedToFavorite() == 0);
@@ -830,14 +728,12 @@ public final class MyDatabase {
             ArrayList<SerialData> copyOfSerials = (ArrayList<SerialData>) this.serials.clone();
             ArrayList<MovieData> copyOfMovies = (ArrayList<MovieData>) this.movies.clone();
 
-            copyOfMovies.removeIf(e -> !e.getGenres().contains(genre));
-            copyOfSerials.removeIf(e -> !e.getGenres().contains(genre));
-
-            copyOfMovies.removeIf(e -> user.getHistory().containsKey(e.getTitle()));
-            copyOfSerials.removeIf(e -> user.getHistory().containsKey(e.getTitle()));
+            Predicate<VideoData> hasGenre = VideoData.withGenres(Collections.singletonList(genre));
+            copyOfMovies.removeIf(hasGenre.negate());
+            copyOfSerials.removeIf(hasGenre.negate());
 
-            getRatingSerials(copyOfSerials);
-            getRatingMovies(copyOfMovies);
+            copyOfMovies.removeIf(e -> user.hasSeen(e.getId()));
+            copyOfSerials.removeIf(e -> user.hasSeen(e.getId()));
 
             ArrayList<VideoData> moviesAndSerials = new ArrayList<>();
             moviesAndSerials.addAll(copyOfMovies);
@@ -870,33 +766,18 @@ public final class MyDatabase {
      * Generate rating for each actor given in list
      * @param list list of actors
      */
-    @SuppressWarnings("unchecked")
     private void getActorsRating(final ArrayList<ActorData> list) {
         double numberOfVideos;
         double actorRating;
-        ArrayList<SerialData> copyOfSerials = (ArrayList<SerialData>) this.serials.clone();
-        ArrayList<MovieData> copyOfMovies = (ArrayList<MovieData>) this.movies.clone();
-
-
-        getRatingSerials(copyOfSerials);
-        getRatingMovies(copyOfMovies);
 
         for (ActorData currentActor : list) {
             numberOfVideos = 0;
             actorRating = 0;
-            for (SerialData currentSerial : copyOfSerials) {
-                if (currentSerial.getCast().contains(currentActor.getName())) {
-                    if (currentSerial.getOverallRating() != 0) {
-                        actorRating += currentSerial.getOverallRating();
-                        numberOfVideos = numberOfVideos + 1;
-                    }
-                }
-            }
-
-            for (MovieData currentMovie : copyOfMovies) {
-                if (currentMovie.getCast().contains(currentActor.getName())) {
-                    if (currentMovie.getOverallRating() != 0) {
-                        actorRating = actorRating + currentMovie.getOverallRating();
+            ArrayList<VideoData> videos = get(videosByActor, currentActor.getId());
+            if (videos != null) {
+                for (VideoData currentVideo : videos) {
+                    if (currentVideo.getOverallRating() != 0) {
+                        actorRating += currentVideo.getOverallRating();
                         numberOfVideos = numberOfVideos + 1;
                     }
                 }
@@ -912,195 +793,154 @@ public final class MyDatabase {
     }
 
     /**
-     * Generate number of reviews for each user in list
-     * @param list list of users
+     * Adds a video to the list of videos of each actor in its cast
+     * @param video video to be indexed
      */
-    private void getNumberOfReviewsUsers(final ArrayList<UserData> list) {
-        for (UserData currentUser : list) {
-            currentUser.setNumberOfReviews(0);
-            for (MovieData currentMovie : this.movies) {
-                if (currentMovie.getRatings().containsKey(currentUser.getUsername())) {
-                    currentUser.setNumberOfReviews(currentUser.getNumberOfReviews() + 1);
-                }
+    private void addToCastIndex(final VideoData video) {
+        if (video.getCastIds() == null) {
+            return;
+        }
+        for (int actorId : video.getCastIds()) {
+            ArrayList<VideoData> videos = get(videosByActor, actorId);
+            if (videos == null) {
+                videos = new ArrayList<>();
+                putIfAbsent(videosByActor, actorId, videos);
             }
-
-            for (SerialData currentSerial : this.serials) {
-                for (Season currentSeason : currentSerial.getSeasons()) {
-                    if (currentSeason.getRatings().containsKey(currentUser.getUsername())) {
-                        currentUser.setNumberOfReviews(currentUser.getNumberOfReviews() + 1);
-                    }
-                }
+            if (videos.isEmpty() || videos.get(videos.size() - 1) != video) {
+                videos.add(video);
             }
         }
     }
 
-
     /**
-     * Generate duration for serials in list
-     * @param list list of serials
+     * Adds a video to the videos with its title
+     * @param index videos by id of the title
+     * @param titleId id of the title of the video
+     * @param video video to be indexed
+     * @param <T> MovieData or SerialData
      */
-    private void getDurationSerials(final ArrayList<SerialData> list) {
-        for (SerialData currentSerial : list) {
-            currentSerial.setDuration(0);
-            for (Season currentSeason : currentSerial.getSeasons()) {
-                currentSerial.setDuration(currentSerial.getDuration()
-                        + currentSeason.getDuration());
-            }
+    private static <T> void addToTitleIndex(final ArrayList<ArrayList<T>> index,
+                                            final int titleId, final T video) {
+        ArrayList<T> videos = get(index, titleId);
+        if (videos == null) {
+            videos = new ArrayList<>();
+            putIfAbsent(index, titleId, videos);
         }
+        videos.add(video);
     }
 
     /**
-     * Computes viewed for each movie
-     * @param list Movies in DB
+     *
+     * @param videos videos with the same title, may be null
+     * @param <T> MovieData or SerialData
+     * @return first video added with the title, null if there is none
      */
-    private void getViewedRankingMovies(final ArrayList<MovieData> list) {
-        for (MovieData currentMovie : list) {
-            currentMovie.setViewed(0);
-            for (UserData currentUser : this.users) {
-                if (currentUser.getHistory().containsKey(currentMovie.getTitle())) {
-                    currentMovie.setViewed(currentMovie.getViewed()
-                            + currentUser.getHistory().get(currentMovie.getTitle()));
-                }
-            }
-        }
+    private static <T> T first(final ArrayList<T> videos) {
+        return videos == null ? null : videos.get(0);
     }
 
     /**
-     * Computes viewed for each serial
-     * @param list Movies in DB
+     * Adds views to the counters of every movie and serial with the given title
+     * @param titleId id of the title of the viewed video
+     * @param views number of views to be added
      */
-    private void getViewedRankingSerials(final ArrayList<SerialData> list) {
-        for (SerialData currentSerial : list) {
-            currentSerial.setViewed(0);
-            for (UserData currentUser : this.users) {
-                if (currentUser.getHistory().containsKey(currentSerial.getTitle())) {
-                    currentSerial.setViewed(currentSerial.getViewed()
-                            + currentUser.getHistory().get(currentSerial.getTitle()));
-                }
+    private void addViews(final int titleId, final int views) {
+        ArrayList<MovieData> moviesWithTitle = get(moviesByTitle, titleId);
+        if (moviesWithTitle != null) {
+            for (MovieData movie : moviesWithTitle) {
+                movie.setViewed(movie.getViewed() + views);
+                movieCatalog.update(movie);
+            }
+        }
+        ArrayList<SerialData> serialsWithTitle = get(serialsByTitle, titleId);
+        if (serialsWithTitle != null) {
+            for (SerialData serial : serialsWithTitle) {
+                serial.setViewed(serial.getViewed() + views);
+                serialCatalog.update(serial);
             }
         }
     }
 
-
     /**
-     * Computes addedToFavorite for each movie
-     * @param list Movies in DB
+     * Counts the views of a title among the users already in DB
+     * @param titleId id of the title of the video
+     * @return total number of views
      */
-   private void getFavoriteRankingMovies(final ArrayList<MovieData> list) {
-        for (MovieData currentMovie : list) {
-            for (UserData currentUser : this.users) {
-                if (currentUser.getFavoriteMovies().contains(currentMovie.getTitle())) {
-                    currentMovie.setAddedToFavorite(currentMovie.getAddedToFavorite() + 1);
-                }
-            }
+    private int countViews(final int titleId) {
+        int views = 0;
+        for (UserData currentUser : this.users) {
+            views += currentUser.getViews(titleId);
         }
+        return views;
     }
 
 
     /**
-     * Computes addedToFavorite for each Serial
-     * @param list Serials in DB
+     * Increments the favorite counters of every movie and serial with the given title
+     * @param titleId id of the title of the video added to a favorite list
      */
-    private void getFavoriteRankingSerials(final ArrayList<SerialData> list) {
-        for (SerialData currentSerial : list) {
-            for (UserData currentUser : this.users) {
-                if (currentUser.getFavoriteMovies().contains(currentSerial.getTitle())) {
-                    currentSerial.setAddedToFavorite(currentSerial.getAddedToFavorite() + 1);
-                }
+    private void addFavorites(final int titleId) {
+        ArrayList<MovieData> moviesWithTitle = get(moviesByTitle, titleId);
+        if (moviesWithTitle != null) {
+            for (MovieData movie : moviesWithTitle) {
+                movie.setAddedToFavorite(movie.getAddedToFavorite() + 1);
+                movieCatalog.update(movie);
             }
         }
-    }
-
-    /**
-     * Used to reverse order of actors in ArrayList
-     * @param list list of actors
-     * @return reversed list
-     */
-    private ArrayList<ActorData> reverseOrderActors(final ArrayList<ActorData> list) {
-        ArrayList<ActorData> result = new ArrayList<>();
-        for (int i = list.size() - 1;  i >= 0; i--) {
-            result.add(list.get(i));
+        ArrayList<SerialData> serialsWithTitle = get(serialsByTitle, titleId);
+        if (serialsWithTitle != null) {
+            for (SerialData serial : serialsWithTitle) {
+                serial.setAddedToFavorite(serial.getAddedToFavorite() + 1);
+                serialCatalog.update(serial);
+            }
         }
-        return result;
     }
 
     /**
-     * Used to reverse order of movies in ArrayList
-     * @param list list of Movies
-     * @return reversed list
+     * Counts how many of the users already in DB have a title in their favorite list
+     * @param titleId id of the title of the video
+     * @return number of favorite lists containing the title
      */
-    private ArrayList<MovieData> reverseOrderMovies(final ArrayList<MovieData> list) {
-        ArrayList<MovieData> result = new ArrayList<>();
-        for (int i = list.size() - 1;  i >= 0; i--) {
-            result.add(list.get(i));
+    private int countFavorites(final int titleId) {
+        int favorites = 0;
+        for (UserData currentUser : this.users) {
+            if (currentUser.isFavorite(titleId)) {
+                favorites++;
+            }
         }
-        return result;
+        return favorites;
     }
 
     /**
-     * Used to reverse order of serials in ArrayList
-     * @param list list of Serials
-     * @return reversed list
+     *
+     * @param list list indexed by id
+     * @param id id, may be NO_ID or past the end of the list
+     * @param <T> type of the elements
+     * @return element with the given id, null if there is none
      */
-    private ArrayList<SerialData> reverseOrderSerials(final ArrayList<SerialData> list) {
-        ArrayList<SerialData> result = new ArrayList<>();
-        for (int i = list.size() - 1;  i >= 0; i--) {
-            result.add(list.get(i));
+    private static <T> T get(final ArrayList<T> list, final int id) {
+        if (id < 0 || id >= list.size()) {
+            return null;
         }
-        return result;
+        return list.get(id);
     }
 
     /**
-     * Used to reverse order of users in ArrayList
-     * @param list list of Serials
-     * @return reversed list
+     * Sets the element with the given id, unless the list already has one
+     * @param list list indexed by id, grown with nulls if needed
+     * @param id id of the element
+     * @param element element to be set
+     * @param <T> type of the elements
      */
-    private ArrayList<UserData> reverseOrderUsers(final ArrayList<UserData> list) {
-        ArrayList<UserData> result = new ArrayList<>();
-        for (int i = list.size() - 1;  i >= 0; i--) {
-            result.add(list.get(i));
+    private static <T> void putIfAbsent(final ArrayList<T> list, final int id, final T element) {
+        while (list.size() <= id) {
+            list.add(null);
         }
-        return result;
-    }
-
-    private void getRatingMovies(final ArrayList<MovieData> list) {
-        double rating;
-        for (MovieData currentMovie : list) {
-            rating = 0;
-            for (Map.Entry<String, Double> currentRating : currentMovie.getRatings().entrySet()) {
-                rating += currentRating.getValue();
-            }
-
-            if (currentMovie.getRatings().size() != 0) {
-                currentMovie.setOverallRating(rating / currentMovie.getRatings().size());
-            }
+        if (list.get(id) == null) {
+            list.set(id, element);
         }
     }
 
-    private void getRatingSerials(final ArrayList<SerialData> list) {
-        double rating;
-        for (SerialData currentSerial : list) {
-            currentSerial.setOverallRating(0);
-            for (Season currentSeason : currentSerial.getSeasons()) {
-                rating = 0;
-                for (Map.Entry<String, Double> currentRating : currentSeason.getRatings()
-                        .entrySet()) {
-                    rating += currentRating.getValue();
-                }
-                if (currentSeason.getRatings().size() != 0) {
-                    currentSerial.setOverallRating(currentSerial.getOverallRating()
-                            + rating / currentSeason.getRatings().size());
-                }
-            }
-            currentSerial.setOverallRating(currentSerial.getOverallRating()
-                    / currentSerial.getNumberOfSeasons());
-        }
-    }
-
-
-
-
-
     public ArrayList<ActorData> getActors() {
         return actors;
     }
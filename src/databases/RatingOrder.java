@@ -0,0 +1,96 @@
+package databases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * All the movies and serials ordered by overallRating, descending, used by the
+ * best_unseen recommendation.
+ * Equal ratings keep the catalog order: movies first, then serials, each in
+ * the order they were added(the order a stable sort of that list would give).
+ * The database calls update after changing the rating of a video.
+ */
+final class RatingOrder {
+    static final int MOVIES = 0;
+    static final int SERIALS = 1;
+
+    /**
+     * Video together with the rating it is ordered by
+     */
+    private static final class Entry {
+        private final VideoData video;
+        private final double rating;
+        private final int group;
+        private final int position;
+
+        Entry(final VideoData video, final int group) {
+            this.video = video;
+            this.rating = video.getOverallRating();
+            this.group = group;
+            this.position = video.getCatalogPosition();
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int result = Double.compare(b.rating, a.rating);
+        if (result == 0) {
+            result = Integer.compare(a.group, b.group);
+        }
+        if (result == 0) {
+            result = Integer.compare(a.position, b.position);
+        }
+        return result;
+    };
+
+    private final TreeSet<Entry> order = new TreeSet<>(ORDER);
+    // entries of each group by catalog position(a movie and a serial, or two
+    // videos of the same group, may share a title id)
+    private final List<ArrayList<Entry>> entries =
+            Arrays.asList(new ArrayList<>(), new ArrayList<>());
+
+    /**
+     *
+     * @param video to be added, after it was added to its VideoCatalog
+     * @param group MOVIES or SERIALS
+     */
+    void add(final VideoData video, final int group) {
+        Entry entry = new Entry(video, group);
+        ArrayList<Entry> groupEntries = entries.get(group);
+        while (groupEntries.size() <= entry.position) {
+            groupEntries.add(null);
+        }
+        groupEntries.set(entry.position, entry);
+        order.add(entry);
+    }
+
+    /**
+     *
+     * @param video whose rating has changed
+     * @param group MOVIES or SERIALS, the same as when the video was added
+     */
+    void update(final VideoData video, final int group) {
+        Entry old = entries.get(group).get(video.getCatalogPosition());
+        if (Double.compare(old.rating, video.getOverallRating()) == 0) {
+            return;
+        }
+        order.remove(old);
+        add(video, group);
+    }
+
+    /**
+     * Walks the videos from the best rated one
+     * @param user user that requests the recommendation
+     * @return first video not seen by the user, or null if there is none
+     */
+    VideoData firstUnseen(final UserData user) {
+        for (Entry entry : order) {
+            if (!user.hasSeen(entry.video.getId())) {
+                return entry.video;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package databases;
+
+import java.util.Arrays;
+
+/**
+ * Grades given to a movie or to a season, stored as two parallel arrays
+ * (id of the user, grade) instead of a map of boxed values.
+ * Small stores are searched by a scan of the user ids; once a store has more
+ * than INDEX_THRESHOLD grades it also keeps an index user id -> position, so
+ * the "already rated" check stays constant time on popular titles.
+ */
+public final class RatingStore {
+    private static final int INDEX_THRESHOLD = 16;
+    private static final int[] NO_USERS = new int[0];
+    private static final double[] NO_GRADES = new double[0];
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] users = NO_USERS;
+    private double[] grades = NO_GRADES;
+    private int size;
+    private double sum;
+    private IntIntMap index;
+
+    /**
+     *
+     * @param userId id of the user
+     * @return true if the user has given a grade
+     */
+    public boolean contains(final int userId) {
+        return indexOf(userId) >= 0;
+    }
+
+    /**
+     * Adds (or replaces) the grade given by a user and updates the running sum
+     * @param userId id of the user that gives the grade
+     * @param grade value of the grade
+     */
+    public void put(final int userId, final double grade) {
+        int position = indexOf(userId);
+        if (position >= 0) {
+            sum -= grades[position];
+            grades[position] = grade;
+            sum += grade;
+            return;
+        }
+
+        if (size == users.length) {
+            int capacity = Math.max(MIN_CAPACITY, 2 * size);
+            users = Arrays.copyOf(users, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+        }
+        users[size] = userId;
+        grades[size] = grade;
+        size++;
+        sum += grade;
+
+        if (index != null) {
+            index.put(userId, size - 1);
+        } else if (size > INDEX_THRESHOLD) {
+            index = new IntIntMap(2 * size);
+            for (int i = 0; i < size; i++) {
+                index.put(users[i], i);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return number of grades
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return average grade, 0 if there are no grades
+     */
+    public double getAverage() {
+        if (size == 0) {
+            return 0;
+        }
+        return sum / size;
+    }
+
+    /**
+     *
+     * @param position position, from 0 to size - 1, in the order the grades were given
+     * @return id of the user that gave the grade
+     */
+    public int getUser(final int position) {
+        return users[position];
+    }
+
+    /**
+     *
+     * @param position position, from 0 to size - 1, in the order the grades were given
+     * @return value of the grade
+     */
+    public double getGrade(final int position) {
+        return grades[position];
+    }
+
+    private int indexOf(final int userId) {
+        if (index != null) {
+            return index.get(userId, -1);
+        }
+        for (int i = 0; i < size; i++) {
+            if (users[i] == userId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
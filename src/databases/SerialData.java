@@ -7,26 +7,38 @@ import java.util.ArrayList;
 
 public final class SerialData extends VideoData {
     private final int numberOfSeasons;
-    private final ArrayList<Season> seasons;
+    private final RatingStore[] seasonRatings;
+    private final int duration;
     private int viewed;
-    private int duration;
 
-    public SerialData(final SerialInputData serial) {
-        super(serial);
+    public SerialData(final SerialInputData serial, final IdDictionary titleIds,
+                      final IdDictionary actorIds) {
+        super(serial, titleIds, actorIds);
         this.numberOfSeasons = serial.getNumberSeason();
-        this.seasons = serial.getSeasons();
+        ArrayList<Season> seasons = serial.getSeasons();
         this.viewed = 0;
-        this.duration = 0;
+        this.seasonRatings = new RatingStore[seasons == null ? 0 : seasons.size()];
+        for (int i = 0; i < seasonRatings.length; i++) {
+            seasonRatings[i] = new RatingStore();
+        }
+        int totalDuration = 0;
+        if (seasons != null) {
+            for (Season currentSeason : seasons) {
+                totalDuration += currentSeason.getDuration();
+            }
+        }
+        this.duration = totalDuration;
     }
 
+    /**
+     *
+     * @return total duration of the seasons in the input, summed at load(the
+     *     Season objects are not kept, so it cannot go stale)
+     */
     public int getDuration() {
         return duration;
     }
 
-    public void setDuration(final int duration) {
-        this.duration = duration;
-    }
-
     public int getViewed() {
         return viewed;
     }
@@ -39,15 +51,45 @@ public final class SerialData extends VideoData {
         return numberOfSeasons;
     }
 
-    public ArrayList<Season> getSeasons() {
-        return seasons;
+    /**
+     *
+     * @param seasonNumber number of the season, starting from 1
+     * @return grades of the season
+     */
+    public RatingStore getRatings(final int seasonNumber) {
+        return seasonRatings[seasonNumber - 1];
+    }
+
+    /**
+     *
+     * @param seasonNumber number of the season, starting from 1
+     * @param userId id of the user
+     * @return true if the user has graded the season
+     */
+    public boolean hasRating(final int seasonNumber, final int userId) {
+        return seasonRatings[seasonNumber - 1].contains(userId);
+    }
+
+    /**
+     * Adds the grade given by a user to a season and updates overallRating
+     * @param seasonNumber number of the graded season, starting from 1
+     * @param userId id of the user that gives the grade
+     * @param grade value of the grade
+     */
+    public void addRating(final int seasonNumber, final int userId, final double grade) {
+        seasonRatings[seasonNumber - 1].put(userId, grade);
+        double rating = 0;
+        for (RatingStore ratings : seasonRatings) {
+            rating += ratings.getAverage();
+        }
+        setOverallRating(rating / numberOfSeasons);
     }
 
     @Override
     public String toString() {
         return "SerialData{" + super.toString()
                 + "numberOfSeasons=" + numberOfSeasons
-                + ", seasons=" + seasons
+                + ", duration=" + duration
                 + "} ";
     }
 }
@@ -0,0 +1,160 @@
+package databases;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Bounded selection of the first n elements of a list in a given order,
+ * used by the queries instead of sorting (and reversing) the whole list.
+ */
+final class TopN {
+    /**
+     * for coding style
+     */
+    private TopN() {
+    }
+
+    /**
+     * Element of the list together with its position, used to keep the result
+     * identical to a stable sort when two elements are equal
+     * @param <T> type of the element
+     */
+    private static final class Entry<T> {
+        private final T item;
+        private final int index;
+
+        Entry(final T item, final int index) {
+            this.item = item;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Selects the first n elements of the list, ordered ascending by comparator
+     * or, if desc is set, in the exact reverse of that order
+     * @param list candidates, left unchanged
+     * @param comparator ascending order of the elements(key, then title/name)
+     * @param desc true for descending order
+     * @param n maximum number of elements expected as output
+     * @param <T> type of the elements
+     * @return at most n elements, in order
+     */
+    static <T> ArrayList<T> select(final List<T> list, final Comparator<? super T> comparator,
+                                   final boolean desc, final int n) {
+        Comparator<Entry<T>> order = (a, b) -> {
+            int result = comparator.compare(a.item, b.item);
+            if (result == 0) {
+                result = Integer.compare(a.index, b.index);
+            }
+            return desc ? -result : result;
+        };
+
+        ArrayList<T> result = new ArrayList<>();
+        if (n <= 0) {
+            return result;
+        }
+
+        // head of the queue is the worst element kept so far
+        PriorityQueue<Entry<T>> heap = new PriorityQueue<>(Math.min(n, list.size()) + 1,
+                order.reversed());
+        int index = 0;
+        for (T item : list) {
+            Entry<T> entry = new Entry<>(item, index++);
+            if (heap.size() < n) {
+                heap.add(entry);
+            } else if (order.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().item);
+        }
+        for (int i = 0, j = result.size() - 1; i < j; i++, j--) {
+            T aux = result.get(i);
+            result.set(i, result.get(j));
+            result.set(j, aux);
+        }
+        return result;
+    }
+
+    /**
+     * Same as select, for ints(e.g. positions in a VideoCatalog) ordered by a
+     * comparator that never returns 0 for two different ints
+     * @param items candidates, left unchanged
+     * @param comparator ascending order of the items
+     * @param desc true for descending order
+     * @param n maximum number of items expected as output
+     * @return at most n items, in order
+     */
+    static int[] select(final int[] items, final IntBinaryOperator comparator,
+                        final boolean desc, final int n) {
+        IntBinaryOperator order = comparator;
+        if (desc) {
+            order = (a, b) -> comparator.applyAsInt(b, a);
+        }
+        if (n <= 0) {
+            return new int[0];
+        }
+
+        // binary heap, heap[0] is the worst item kept so far
+        int[] heap = new int[Math.min(n, items.length)];
+        int size = 0;
+        for (int item : items) {
+            if (size < heap.length) {
+                heap[size] = item;
+                siftUp(heap, size, order);
+                size++;
+            } else if (order.applyAsInt(item, heap[0]) < 0) {
+                heap[0] = item;
+                siftDown(heap, size, order);
+            }
+        }
+
+        int[] result = new int[size];
+        while (size > 0) {
+            result[size - 1] = heap[0];
+            size--;
+            heap[0] = heap[size];
+            siftDown(heap, size, order);
+        }
+        return result;
+    }
+
+    private static void siftUp(final int[] heap, final int index, final IntBinaryOperator order) {
+        int child = index;
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (order.applyAsInt(heap[child], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, child, parent);
+            child = parent;
+        }
+    }
+
+    private static void siftDown(final int[] heap, final int size, final IntBinaryOperator order) {
+        int parent = 0;
+        while (2 * parent + 1 < size) {
+            int child = 2 * parent + 1;
+            if (child + 1 < size && order.applyAsInt(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.applyAsInt(heap[child], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, child, parent);
+            parent = child;
+        }
+    }
+
+    private static void swap(final int[] heap, final int i, final int j) {
+        int aux = heap[i];
+        heap[i] = heap[j];
+        heap[j] = aux;
+    }
+}
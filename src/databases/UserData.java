@@ -2,40 +2,140 @@ package databases;
 
 import fileio.UserInputData;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 public final class UserData {
     private final String username;
+    private final int id;
     private final String subscriptionType;
-    private final Map<String, Integer> history;
-    private final ArrayList<String> favoriteMovies;
+    private final IntIntMap history;
+    private final IntSet favoriteMovies;
+    private final IdDictionary titleIds;
+    private final Map<String, Integer> historyView = new HistoryView();
+    private final List<String> favoritesView = new FavoritesView();
     private int numberOfReviews;
 
     public String getUsername() {
         return username;
     }
 
+    /**
+     *
+     * @return id of the username
+     */
+    public int getId() {
+        return id;
+    }
+
     public String getSubscriptionType() {
         return subscriptionType;
     }
 
+    /**
+     *
+     * @return number of views of each title, as an unmodifiable view of the history
+     */
     public Map<String, Integer> getHistory() {
-        return history;
+        return historyView;
     }
 
-    public ArrayList<String> getFavoriteMovies() {
-        return favoriteMovies;
+    /**
+     *
+     * @return titles of the favorite list, as an unmodifiable view of the list
+     */
+    public List<String> getFavoriteMovies() {
+        return favoritesView;
     }
 
-    public UserData(final UserInputData user) {
+    public UserData(final UserInputData user, final IdDictionary userIds,
+                    final IdDictionary titleIds) {
         this.username = user.getUsername();
+        this.id = userIds.getId(username);
         this.subscriptionType = user.getSubscriptionType();
-        this.history = user.getHistory();
-        this.favoriteMovies = user.getFavoriteMovies();
+        this.titleIds = titleIds;
+        Map<String, Integer> views = user.getHistory();
+        this.history = new IntIntMap(views.size());
+        for (Map.Entry<String, Integer> entry : views.entrySet()) {
+            history.put(titleIds.getId(entry.getKey()), entry.getValue());
+        }
+        ArrayList<String> favorites = user.getFavoriteMovies();
+        this.favoriteMovies = new IntSet(favorites == null ? 0 : favorites.size());
+        if (favorites != null) {
+            for (String title : favorites) {
+                favoriteMovies.add(titleIds.getId(title));
+            }
+        }
         this.numberOfReviews = 0;
     }
 
+    /**
+     *
+     * @param titleId id of the title
+     * @return true if the title is in the history of the user
+     */
+    public boolean hasSeen(final int titleId) {
+        return history.containsKey(titleId);
+    }
+
+    /**
+     *
+     * @param titleId id of the title
+     * @return number of views of the title, 0 if it was not seen
+     */
+    public int getViews(final int titleId) {
+        return history.get(titleId, 0);
+    }
+
+    /**
+     * Adds a view of the title to the history
+     * @param titleId id of the title
+     * @return number of views of the title, after this one
+     */
+    public int addView(final int titleId) {
+        return history.add(titleId, 1);
+    }
+
+    /**
+     *
+     * @param titleId id of the title
+     * @return true if the title is in the favorite list
+     */
+    public boolean isFavorite(final int titleId) {
+        return favoriteMovies.contains(titleId);
+    }
+
+    /**
+     *
+     * @param titleId id of the title to be added to the favorite list
+     */
+    public void addFavorite(final int titleId) {
+        favoriteMovies.add(titleId);
+    }
+
+    /**
+     *
+     * @return views by id of the title, in the order of the history
+     */
+    IntIntMap getHistoryIds() {
+        return history;
+    }
+
+    /**
+     *
+     * @return ids of the favorite titles, in the order they were added
+     */
+    IntSet getFavoriteIds() {
+        return favoriteMovies;
+    }
+
     public int getNumberOfReviews() {
         return numberOfReviews;
     }
@@ -44,13 +144,96 @@ public final class UserData {
         this.numberOfReviews = numberOfReviews;
     }
 
+    /**
+     * History decoded on access, in the order of the history
+     */
+    private final class HistoryView extends AbstractMap<String, Integer> {
+        private final Set<Map.Entry<String, Integer>> entries = new HistoryEntries();
+
+        @Override
+        public Set<Map.Entry<String, Integer>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public int size() {
+            return history.size();
+        }
+
+        @Override
+        public boolean containsKey(final Object title) {
+            return title instanceof String && hasSeen(titleIds.findId((String) title));
+        }
+
+        @Override
+        public Integer get(final Object title) {
+            if (!containsKey(title)) {
+                return null;
+            }
+            return getViews(titleIds.findId((String) title));
+        }
+    }
+
+    /**
+     * Entries of HistoryView
+     */
+    private final class HistoryEntries extends AbstractSet<Map.Entry<String, Integer>> {
+        @Override
+        public Iterator<Map.Entry<String, Integer>> iterator() {
+            return new Iterator<>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < history.size();
+                }
+
+                @Override
+                public Map.Entry<String, Integer> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Map.Entry<String, Integer> entry = new AbstractMap.SimpleImmutableEntry<>(
+                            titleIds.getName(history.keyAt(index)), history.valueAt(index));
+                    index++;
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return history.size();
+        }
+    }
+
+    /**
+     * Favorite list decoded on access, in the order the titles were added
+     */
+    private final class FavoritesView extends AbstractList<String> {
+        @Override
+        public String get(final int index) {
+            return titleIds.getName(favoriteMovies.get(index));
+        }
+
+        @Override
+        public int size() {
+            return favoriteMovies.size();
+        }
+
+        @Override
+        public boolean contains(final Object title) {
+            return title instanceof String && isFavorite(titleIds.findId((String) title));
+        }
+    }
+
     @Override
     public String toString() {
         return "UserData{"
                 + "username='" + username + '\''
                 + ", subscriptionType='" + subscriptionType + '\''
-                + ", history=" + history
-                + ", favoriteMovies=" + favoriteMovies
+                + ", history=" + getHistory()
+                + ", favoriteMovies=" + getFavoriteMovies()
                 + '}';
     }
 }
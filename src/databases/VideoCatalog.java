@@ -0,0 +1,225 @@
+package databases;
+
+import action.QueryCriteria;
+import entertainment.Genre;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Columnar copy of a catalog of videos, used by the video queries: the fields
+ * that are filtered or sorted on are kept in parallel primitive arrays,
+ * indexed by the position of the video in the catalog, so a query scans
+ * arrays instead of reading one field from each object.
+ * Year and genre indexes give the positions to scan when a query is filtered.
+ * The database calls update after changing the views, favorites or rating of
+ * a video.
+ * @param <T> MovieData or SerialData
+ */
+final class VideoCatalog<T extends VideoData> {
+    private static final int MIN_CAPACITY = 16;
+    private static final IntList NO_POSITIONS = new IntList();
+
+    private final ToIntFunction<T> durationOf;
+    private final ToIntFunction<T> viewsOf;
+    private final ArrayList<T> videos = new ArrayList<>();
+    private final HashMap<Integer, IntList> byYear = new HashMap<>();
+    private final HashMap<String, IntList> byGenre = new HashMap<>();
+    private int size;
+    private int[] year = new int[MIN_CAPACITY];
+    private int[] duration = new int[MIN_CAPACITY];
+    private long[] genreMask = new long[MIN_CAPACITY];
+    private double[] rating = new double[MIN_CAPACITY];
+    private int[] views = new int[MIN_CAPACITY];
+    private int[] favorites = new int[MIN_CAPACITY];
+
+    /**
+     *
+     * @param durationOf duration of a video
+     * @param viewsOf number of views of a video
+     */
+    VideoCatalog(final ToIntFunction<T> durationOf, final ToIntFunction<T> viewsOf) {
+        this.durationOf = durationOf;
+        this.viewsOf = viewsOf;
+    }
+
+    /**
+     *
+     * @param video to be added at the end of the catalog
+     */
+    void add(final T video) {
+        if (size == year.length) {
+            int capacity = 2 * size;
+            year = Arrays.copyOf(year, capacity);
+            duration = Arrays.copyOf(duration, capacity);
+            genreMask = Arrays.copyOf(genreMask, capacity);
+            rating = Arrays.copyOf(rating, capacity);
+            views = Arrays.copyOf(views, capacity);
+            favorites = Arrays.copyOf(favorites, capacity);
+        }
+        int position = size++;
+        video.setCatalogPosition(position);
+        videos.add(video);
+        year[position] = video.getYear();
+        duration[position] = durationOf.applyAsInt(video);
+        long mask = 0;
+        for (Genre genre : video.getGenreSet()) {
+            mask |= genreBit(genre);
+        }
+        genreMask[position] = mask;
+        update(video);
+
+        byYear.computeIfAbsent(video.getYear(), k -> new IntList()).add(position);
+        if (video.getGenres() != null) {
+            for (String genre : video.getGenres()) {
+                IntList positions = byGenre.computeIfAbsent(genre, k -> new IntList());
+                if (positions.size() == 0 || positions.last() != position) {
+                    positions.add(position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the views, favorites and rating of a video into the columns
+     * @param video video of this catalog
+     */
+    void update(final T video) {
+        int position = video.getCatalogPosition();
+        views[position] = viewsOf.applyAsInt(video);
+        favorites[position] = video.getAddedToFavorite();
+        rating[position] = video.getOverallRating();
+    }
+
+    /**
+     * Used to filter videos by year and/or genres
+     * @param filters filters to be applied(only indexes 0(year) and 1(genres) will be used.
+     * @return new list with the videos matching all filters, in catalog order
+     */
+    ArrayList<T> filter(final List<List<String>> filters) {
+        return toVideos(filterPositions(filters));
+    }
+
+    /**
+     * Selects the videos of a query: the videos matching the filters, without
+     * the ones that have 0 as value of the criteria(except for longest),
+     * ordered by the criteria, then by title
+     * @param filters filters to be applied(only indexes 0(year) and 1(genres) will be used.
+     * @param criteria favorite, ratings, longest or most_viewed
+     * @param desc true for descending order
+     * @param n maximum number of videos expected as output
+     * @return at most n videos, in order
+     */
+    ArrayList<T> top(final List<List<String>> filters, final QueryCriteria criteria,
+                     final boolean desc, final int n) {
+        int[] positions = filterPositions(filters);
+
+        IntBinaryOperator key = switch (criteria) {
+            case FAVORITE -> (a, b) -> Integer.compare(favorites[a], favorites[b]);
+            case RATINGS -> (a, b) -> Double.compare(rating[a], rating[b]);
+            case LONGEST -> (a, b) -> Integer.compare(duration[a], duration[b]);
+            case MOST_VIEWED -> (a, b) -> Integer.compare(views[a], views[b]);
+            default -> throw new IllegalArgumentException("Not a video criteria: " + criteria);
+        };
+
+        int count = 0;
+        for (int position : positions) {
+            boolean isZero = switch (criteria) {
+                case FAVORITE -> favorites[position] == 0;
+                case RATINGS -> rating[position] == 0;
+                case MOST_VIEWED -> views[position] == 0;
+                default -> false;
+            };
+            if (!isZero) {
+                positions[count++] = position;
+            }
+        }
+
+        // the positions are in catalog order, so the position breaks the ties
+        // the same way a stable sort of the videos would
+        int[] selected = TopN.select(Arrays.copyOf(positions, count), (a, b) -> {
+            int result = key.applyAsInt(a, b);
+            if (result == 0) {
+                result = videos.get(a).getTitle().compareTo(videos.get(b).getTitle());
+            }
+            if (result == 0) {
+                result = Integer.compare(a, b);
+            }
+            return result;
+        }, desc, n);
+        return toVideos(selected);
+    }
+
+    private int[] filterPositions(final List<List<String>> filters) {
+        boolean hasYear = filters.get(0).get(0) != null;
+        int filterYear = 0;
+        List<String> genres = null;
+        if (hasYear) {
+            filterYear = Integer.parseInt(filters.get(0).get(0));
+        }
+        if (filters.get(1).get(0) != null) {
+            genres = filters.get(1);
+        }
+
+        // start from the smallest posting list, then check the other filters on it
+        IntList candidates = null;
+        if (hasYear) {
+            candidates = byYear.getOrDefault(filterYear, NO_POSITIONS);
+        }
+        long required = 0;
+        Predicate<VideoData> hasGenres = null;
+        if (genres != null) {
+            for (String genre : genres) {
+                IntList positions = byGenre.getOrDefault(genre, NO_POSITIONS);
+                if (candidates == null || positions.size() < candidates.size()) {
+                    candidates = positions;
+                }
+                Genre genreEnum = VideoData.toGenre(genre);
+                if (genreEnum == null) {
+                    hasGenres = VideoData.withGenres(genres);
+                } else {
+                    required |= genreBit(genreEnum);
+                }
+            }
+        }
+        if (hasGenres != null) {
+            // an unknown genre is matched on the strings, see VideoData.withGenres
+            required = 0;
+        }
+
+        int count = candidates == null ? size : candidates.size();
+        int[] result = new int[count];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            int position = candidates == null ? i : candidates.get(i);
+            if (hasYear && year[position] != filterYear) {
+                continue;
+            }
+            if ((genreMask[position] & required) != required) {
+                continue;
+            }
+            if (hasGenres != null && !hasGenres.test(videos.get(position))) {
+                continue;
+            }
+            result[found++] = position;
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    private ArrayList<T> toVideos(final int[] positions) {
+        ArrayList<T> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(videos.get(position));
+        }
+        return result;
+    }
+
+    private static long genreBit(final Genre genre) {
+        return 1L << genre.ordinal();
+    }
+}
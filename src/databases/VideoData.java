@@ -1,22 +1,43 @@
 package databases;
 
+import entertainment.Genre;
 import fileio.ShowInput;
+import utils.Utils;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Predicate;
 
 public class VideoData {
     private final String title;
+    private final int id;
     private final int year;
-    private final ArrayList<String> cast;
+    private final int[] castIds;
+    private final IdDictionary actorIds;
     private final ArrayList<String> genres;
+    private final EnumSet<Genre> genreSet;
     private int addedToFavorite;
     private double overallRating;
+    private int catalogPosition;
 
-    public VideoData(final ShowInput show) {
+    public VideoData(final ShowInput show, final IdDictionary titleIds,
+                     final IdDictionary actorIds) {
         this.title = show.getTitle();
+        this.id = titleIds.getId(title);
         this.year = show.getYear();
-        this.cast = show.getCast();
+        this.castIds = actorIds.getIds(show.getCast());
+        this.actorIds = actorIds;
         this.genres = show.getGenres();
+        this.genreSet = EnumSet.noneOf(Genre.class);
+        if (genres != null) {
+            for (String genre : genres) {
+                Genre genreEnum = toGenre(genre);
+                if (genreEnum != null) {
+                    genreSet.add(genreEnum);
+                }
+            }
+        }
         this.addedToFavorite = 0;
         this.overallRating = 0;
     }
@@ -45,6 +66,14 @@ public class VideoData {
         return title;
     }
 
+    /**
+     *
+     * @return id of the title of this video
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      *
      * @return year of the video
@@ -55,10 +84,18 @@ public class VideoData {
 
     /**
      *
-     * @return list of cast for the video
+     * @return list of cast for the video(new list, decoded from the ids)
      */
     public ArrayList<String> getCast() {
-        return cast;
+        return actorIds.getNames(castIds);
+    }
+
+    /**
+     *
+     * @return ids of the actors in the cast, null if the video has no cast
+     */
+    public int[] getCastIds() {
+        return castIds;
     }
 
     /**
@@ -69,6 +106,59 @@ public class VideoData {
         return genres;
     }
 
+    /**
+     *
+     * @return genres of the video as a set of Genre(backed by a bitmask)
+     */
+    public EnumSet<Genre> getGenreSet() {
+        return genreSet;
+    }
+
+    /**
+     * Builds a check for videos that have all the given genres.
+     * Genres spelled exactly as in the input files(see Utils.stringToGenreExact)
+     * are tested on the genre set, the check falls back to the list of strings
+     * for any other spelling.
+     * @param genres genres that the video must have
+     * @return predicate to be applied on videos
+     */
+    public static Predicate<VideoData> withGenres(final List<String> genres) {
+        EnumSet<Genre> required = EnumSet.noneOf(Genre.class);
+        for (String genre : genres) {
+            Genre genreEnum = toGenre(genre);
+            if (genreEnum == null) {
+                return e -> e.getGenres() != null && e.getGenres().containsAll(genres);
+            }
+            required.add(genreEnum);
+        }
+        return e -> e.getGenreSet().containsAll(required);
+    }
+
+    /**
+     *
+     * @param genre genre as found in the input(may be null)
+     * @return the Genre with exactly this spelling, null if there is none
+     */
+    static Genre toGenre(final String genre) {
+        return Utils.stringToGenreExact(genre);
+    }
+
+    /**
+     *
+     * @return position of the video in the columns of its VideoCatalog
+     */
+    int getCatalogPosition() {
+        return catalogPosition;
+    }
+
+    /**
+     *
+     * @param catalogPosition position of the video in the columns of its VideoCatalog
+     */
+    void setCatalogPosition(final int catalogPosition) {
+        this.catalogPosition = catalogPosition;
+    }
+
     /**
      *
      * @return value of addedToFavorite
@@ -96,7 +186,7 @@ public class VideoData {
         return "VideoData{"
                 + "title='" + title + '\''
                 + ", year=" + year
-                + ", cast=" + cast
+                + ", cast=" + getCast()
                 + ", genres=" + genres
                 + ", addedToFavorite = " + addedToFavorite
                 + '}';
@@ -0,0 +1,156 @@
+package databases;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index word -> actors over the career descriptions, used by the
+ * filter_description query.
+ * A keyword matches a description when the regex "[^a-zA-z]keyword[^a-zA-z]"
+ * would find it(case insensitive), so a word is a maximal run of characters
+ * from the range 'A'..'z' that has another character on both sides.
+ */
+final class WordIndex {
+    private static final char FIRST_WORD_CHAR = 'A';
+    private static final char LAST_WORD_CHAR = 'z';
+    private static final int LOWER_CASE_OFFSET = 'a' - 'A';
+
+    private final HashMap<String, ArrayList<ActorData>> postings = new HashMap<>();
+
+    /**
+     *
+     * @param actor to be added to the index
+     */
+    void add(final ActorData actor) {
+        String description = actor.getCareerDescription();
+        if (description == null) {
+            return;
+        }
+
+        int length = description.length();
+        int i = 0;
+        while (i < length) {
+            if (!isWordChar(description.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isWordChar(description.charAt(i))) {
+                i++;
+            }
+            if (start > 0 && i < length) {
+                ArrayList<ActorData> actors = postings.computeIfAbsent(
+                        toLowerCase(description.substring(start, i)), k -> new ArrayList<>());
+                if (actors.isEmpty() || actors.get(actors.size() - 1) != actor) {
+                    actors.add(actor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Selects the actors whose description contains all the keywords
+     * @param keywords words to be searched
+     * @param all all actors, in the order they were added to the index
+     * @return new list of actors, in the order they were added to the index
+     */
+    ArrayList<ActorData> search(final List<String> keywords, final List<ActorData> all) {
+        List<ArrayList<ActorData>> lists = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (isIndexable(keyword)) {
+                ArrayList<ActorData> actors = postings.get(toLowerCase(keyword));
+                if (actors == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(actors);
+            } else {
+                patterns.add(Pattern.compile("[^a-zA-z]" + keyword + "[^a-zA-z]",
+                        Pattern.CASE_INSENSITIVE));
+            }
+        }
+
+        // walk the shortest posting list and probe the others
+        int shortest = -1;
+        for (int i = 0; i < lists.size(); i++) {
+            if (shortest == -1 || lists.get(i).size() < lists.get(shortest).size()) {
+                shortest = i;
+            }
+        }
+        List<ActorData> candidates = all;
+        List<Set<ActorData>> others = new ArrayList<>();
+        for (int i = 0; i < lists.size(); i++) {
+            if (i == shortest) {
+                candidates = lists.get(i);
+            } else {
+                others.add(identitySet(lists.get(i)));
+            }
+        }
+
+        ArrayList<ActorData> result = new ArrayList<>();
+        for (ActorData actor : candidates) {
+            if (matchesAll(actor, others, patterns)) {
+                result.add(actor);
+            }
+        }
+        return result;
+    }
+
+    private static boolean matchesAll(final ActorData actor, final List<Set<ActorData>> others,
+                                      final List<Pattern> patterns) {
+        for (Set<ActorData> other : others) {
+            if (!other.contains(actor)) {
+                return false;
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (actor.getCareerDescription() == null
+                    || !pattern.matcher(actor.getCareerDescription()).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<ActorData> identitySet(final List<ActorData> actors) {
+        Set<ActorData> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(actors);
+        return set;
+    }
+
+    /**
+     * Only plain ASCII words can be looked up in the index, any other keyword
+     * is matched with the regex on the description
+     */
+    private static boolean isIndexable(final String keyword) {
+        if (keyword.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWordChar(final char c) {
+        return c >= FIRST_WORD_CHAR && c <= LAST_WORD_CHAR;
+    }
+
+    private static String toLowerCase(final String word) {
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + LOWER_CASE_OFFSET);
+            }
+        }
+        return new String(chars);
+    }
+}
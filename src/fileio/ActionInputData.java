@@ -1,5 +1,12 @@
 package fileio;
 
+import action.ActionType;
+import action.CommandType;
+import action.ObjectType;
+import action.QueryCriteria;
+import action.RecommendationType;
+import utils.Utils;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -62,6 +69,26 @@ public final class ActionInputData {
      * Filters used for selecting videos
      */
     private final List<List<String>> filters = new ArrayList<>();
+    /**
+     * Type of action, parsed once from actionType
+     */
+    private final ActionType actionTypeEnum;
+    /**
+     * Type of command, parsed once from type(null for other actions)
+     */
+    private final CommandType commandType;
+    /**
+     * Type of recommendation, parsed once from type(null for other actions)
+     */
+    private final RecommendationType recommendationType;
+    /**
+     * Criteria of a query, parsed once from criteria
+     */
+    private final QueryCriteria criteriaEnum;
+    /**
+     * Object type of a query, parsed once from objectType
+     */
+    private final ObjectType objectTypeEnum;
 
     protected ActionInputData(final int actionId, final String actionType,
                               final String type, final String username, final String genre) {
@@ -77,6 +104,11 @@ public final class ActionInputData {
         this.title = null;
         this.grade = 0;
         this.seasonNumber = 0;
+        this.actionTypeEnum = Utils.stringToActionType(actionType);
+        this.commandType = null;
+        this.recommendationType = Utils.stringToRecommendationType(type);
+        this.criteriaEnum = null;
+        this.objectTypeEnum = null;
     }
 
     public ActionInputData(final int actionId, final String actionType, final String objectType,
@@ -99,6 +131,11 @@ public final class ActionInputData {
         this.genre = null;
         this.grade = 0;
         this.seasonNumber = 0;
+        this.actionTypeEnum = Utils.stringToActionType(actionType);
+        this.commandType = null;
+        this.recommendationType = null;
+        this.criteriaEnum = Utils.stringToCriteria(criteria);
+        this.objectTypeEnum = Utils.stringToObjectType(objectType);
     }
 
     public ActionInputData(final int actionId, final String actionType, final String type,
@@ -116,6 +153,11 @@ public final class ActionInputData {
         this.sortType = null;
         this.criteria = null;
         this.number = 0;
+        this.actionTypeEnum = Utils.stringToActionType(actionType);
+        this.commandType = Utils.stringToCommandType(type);
+        this.recommendationType = null;
+        this.criteriaEnum = null;
+        this.objectTypeEnum = null;
     }
 
     public int getActionId() {
@@ -170,6 +212,26 @@ public final class ActionInputData {
         return filters;
     }
 
+    public ActionType getActionTypeEnum() {
+        return actionTypeEnum;
+    }
+
+    public CommandType getCommandType() {
+        return commandType;
+    }
+
+    public RecommendationType getRecommendationType() {
+        return recommendationType;
+    }
+
+    public QueryCriteria getCriteriaEnum() {
+        return criteriaEnum;
+    }
+
+    public ObjectType getObjectTypeEnum() {
+        return objectTypeEnum;
+    }
+
     @Override
     public String toString() {
         return "ActionInputData{"
@@ -1,5 +1,11 @@
 package fileio;
 
+import actor.ActorsAwards;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
 import common.Constants;
 import entertainment.Season;
 import org.json.simple.JSONArray;
@@ -8,10 +14,14 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import utils.Utils;
 
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * The class reads and parses the data from the tests
@@ -19,6 +29,10 @@ import java.util.List;
  * DO NOT MODIFY
  */
 public final class InputLoader {
+    /**
+     * Factory shared by all the streaming parsers
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
     /**
      * The path to the input file
      */
@@ -273,4 +287,483 @@ public final class InputLoader {
 
         return actions;
     }
+
+    /**
+     * Same as readData, but reads the file token by token with a Jackson
+     * JsonParser and builds the *InputData objects directly, without keeping
+     * a JSON tree of the whole file in memory
+     * @return an Input object
+     */
+    public Input readDataStreaming() {
+        List<ActionInputData> actions = new ArrayList<>();
+        Input[] database = new Input[1];
+        boolean hasActions = readDataStreaming(data -> database[0] = data, actions::add);
+
+        return new Input(database[0].getActors(), database[0].getUsers(),
+                hasActions ? actions : null, database[0].getMovies(), database[0].getSerials());
+    }
+
+    /**
+     * Reads the file token by token and hands over the data as soon as it is
+     * built: first the database(an Input without commands), then every action,
+     * in the order of the file. Actions found before the database are held
+     * until the database has been handed over.
+     * @param onDatabase receives the database, exactly once
+     * @param onAction receives each action
+     * @return true if the file has a list of actions
+     */
+    public boolean readDataStreaming(final Consumer<Input> onDatabase,
+                                     final Consumer<ActionInputData> onAction) {
+        StreamedInput streamed = new StreamedInput(onDatabase, onAction);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(new File(inputPath))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Input root is not a JSON object: " + inputPath);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (Constants.DATABASE.equals(field)
+                        && parser.currentToken() == JsonToken.START_OBJECT) {
+                    readDatabase(parser, streamed);
+                    streamed.deliverDatabase();
+                } else if (Constants.ACTIONS.equals(field)
+                        && parser.currentToken() == JsonToken.START_ARRAY) {
+                    streamed.hasActions = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        streamed.addAction(readAction(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        streamed.deliverDatabase();
+        if (!streamed.hasActions) {
+            System.out.println("NU EXISTA COMENZI");
+        }
+        return streamed.hasActions;
+    }
+
+    /**
+     * Data read by readDataStreaming. Actions found before the database are
+     * kept as RawAction until the default query limit is known.
+     */
+    private static final class StreamedInput {
+        private final List<ActorInputData> actors = new ArrayList<>();
+        private final List<UserInputData> users = new ArrayList<>();
+        private final List<MovieInputData> movies = new ArrayList<>();
+        private final List<SerialInputData> serials = new ArrayList<>();
+        private final List<RawAction> pending = new ArrayList<>();
+        private final Consumer<Input> onDatabase;
+        private final Consumer<ActionInputData> onAction;
+        private boolean hasActors;
+        private boolean hasUsers;
+        private boolean hasMovies;
+        private boolean hasSerials;
+        private boolean hasActions;
+        private boolean delivered;
+
+        private StreamedInput(final Consumer<Input> onDatabase,
+                              final Consumer<ActionInputData> onAction) {
+            this.onDatabase = onDatabase;
+            this.onAction = onAction;
+        }
+
+        private int defaultNumber() {
+            return Math.max(Math.max(movies.size() + serials.size(), users.size()),
+                    actors.size());
+        }
+
+        private void addAction(final RawAction action) {
+            if (delivered) {
+                action.addTo(onAction, defaultNumber());
+            } else {
+                pending.add(action);
+            }
+        }
+
+        private void deliverDatabase() {
+            if (delivered) {
+                return;
+            }
+            if (!hasActors) {
+                System.out.println("NU EXISTA ACTORI");
+            }
+            if (!hasUsers) {
+                System.out.println("NU EXISTA UTILIZATORI");
+            }
+            if (!hasSerials) {
+                System.out.println("NU EXISTA SERIALE");
+            }
+            if (!hasMovies) {
+                System.out.println("NU EXISTA FILME");
+            }
+            onDatabase.accept(new Input(hasActors ? actors : null, hasUsers ? users : null,
+                    null, hasMovies ? movies : null, hasSerials ? serials : null));
+            delivered = true;
+
+            for (RawAction action : pending) {
+                action.addTo(onAction, defaultNumber());
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * Fields of an action, as read from the input
+     */
+    private static final class RawAction {
+        private int id;
+        private String actionType;
+        private String type;
+        private String user;
+        private String username;
+        private String title;
+        private String objectType;
+        private String sortType;
+        private String criteria;
+        private String genre;
+        private String filterGenre;
+        private String year;
+        private List<String> words;
+        private List<String> awards;
+        private Integer number;
+        private double grade;
+        private int season;
+
+        private void addTo(final Consumer<ActionInputData> actions, final int defaultNumber) {
+            switch (actionType) {
+                case Constants.COMMAND -> actions.accept(new ActionInputData(id, actionType,
+                        type, user, title, grade, season));
+                case Constants.QUERY -> actions.accept(new ActionInputData(id, actionType,
+                        objectType, filterGenre, sortType, criteria, year,
+                        number != null ? number : defaultNumber, words, awards));
+                case Constants.RECOMMENDATION -> actions.accept(new ActionInputData(id,
+                        actionType, type, username, genre));
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static void readDatabase(final JsonParser parser, final StreamedInput streamed)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case Constants.ACTORS -> {
+                    streamed.hasActors = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        streamed.actors.add(readActor(parser));
+                    }
+                }
+                case Constants.USERS -> {
+                    streamed.hasUsers = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        streamed.users.add(readUser(parser));
+                    }
+                }
+                case Constants.MOVIES -> {
+                    streamed.hasMovies = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        streamed.movies.add(readMovie(parser));
+                    }
+                }
+                case Constants.SHOWS -> {
+                    streamed.hasSerials = true;
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        streamed.serials.add(readSerial(parser));
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static ActorInputData readActor(final JsonParser parser) throws IOException {
+        String name = null;
+        String description = null;
+        ArrayList<String> filmography = null;
+        Map<ActorsAwards, Integer> awards = new LinkedHashMap<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.NAME -> name = readString(parser);
+                case Constants.DESCRIPTION -> description = readString(parser);
+                case Constants.FILMOGRAPHY -> filmography = readStringList(parser);
+                case Constants.AWARDS -> {
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readAward(parser, awards);
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new ActorInputData(name, description, filmography, awards);
+    }
+
+    private static void readAward(final JsonParser parser,
+                                  final Map<ActorsAwards, Integer> awards) throws IOException {
+        String awardType = null;
+        int numberOfAwards = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.AWARD_TYPE -> awardType = readString(parser);
+                case Constants.NUMBER_OF_AWARDS -> numberOfAwards = readInt(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        awards.put(Utils.stringToAwards(awardType), numberOfAwards);
+    }
+
+    private static UserInputData readUser(final JsonParser parser) throws IOException {
+        String username = null;
+        String subscription = null;
+        Map<String, Integer> history = null;
+        ArrayList<String> favorites = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.USERNAME -> username = readString(parser);
+                case Constants.SUBSCRIPTION -> subscription = readString(parser);
+                case Constants.FAVORITE_MOVIES -> favorites = readStringList(parser);
+                case Constants.HISTORY -> {
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        history = new LinkedHashMap<>();
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readView(parser, history);
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (history == null) {
+            System.out.println("NU ESTE VIZIONAT NICIUN FILM");
+            history = new LinkedHashMap<>();
+        }
+        return new UserInputData(username, subscription, history, favorites);
+    }
+
+    private static void readView(final JsonParser parser,
+                                 final Map<String, Integer> history) throws IOException {
+        String name = null;
+        int views = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.NAME -> name = readString(parser);
+                case Constants.NUMBER_VIEWS -> views = readInt(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        history.put(name, views);
+    }
+
+    private static MovieInputData readMovie(final JsonParser parser) throws IOException {
+        String name = null;
+        ArrayList<String> cast = null;
+        ArrayList<String> genres = null;
+        int year = 0;
+        int duration = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.NAME -> name = readString(parser);
+                case Constants.ACTORS -> cast = readStringList(parser);
+                case Constants.GENRES -> genres = readStringList(parser);
+                case Constants.YEAR -> year = readInt(parser);
+                case Constants.DURATION -> duration = readInt(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new MovieInputData(name, cast, genres, year, duration);
+    }
+
+    private static SerialInputData readSerial(final JsonParser parser) throws IOException {
+        String name = null;
+        ArrayList<String> cast = null;
+        ArrayList<String> genres = null;
+        ArrayList<Season> seasons = null;
+        int numberOfSeasons = 0;
+        int year = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.NAME -> name = readString(parser);
+                case Constants.CAST -> cast = readStringList(parser);
+                case Constants.GENRES -> genres = readStringList(parser);
+                case Constants.NUMBER_OF_SEASONS -> numberOfSeasons = readInt(parser);
+                case Constants.YEAR -> year = readInt(parser);
+                case Constants.SEASONS -> {
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        seasons = new ArrayList<>();
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            seasons.add(readSeason(parser));
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new SerialInputData(name, cast, genres, numberOfSeasons, seasons, year);
+    }
+
+    private static Season readSeason(final JsonParser parser) throws IOException {
+        int currentSeason = 0;
+        int duration = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.CURRENT_SEASON -> currentSeason = readInt(parser);
+                case Constants.DURATION -> duration = readInt(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new Season(currentSeason, duration);
+    }
+
+    private static RawAction readAction(final JsonParser parser) throws IOException {
+        RawAction action = new RawAction();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.ID -> action.id = readInt(parser);
+                case Constants.ACTION_TYPE -> action.actionType = readString(parser);
+                case Constants.TYPE -> action.type = readString(parser);
+                case Constants.USER -> action.user = readString(parser);
+                case Constants.USERNAME -> action.username = readString(parser);
+                case Constants.TITLE -> action.title = readString(parser);
+                case Constants.OBJECT -> action.objectType = readString(parser);
+                case Constants.SORT -> action.sortType = readString(parser);
+                case Constants.CRITERIA -> action.criteria = readString(parser);
+                case Constants.GENRE -> action.genre = readString(parser);
+                case Constants.SEASON -> {
+                    if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                        action.season = readInt(parser);
+                    }
+                }
+                case Constants.GRADE -> {
+                    if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                        action.grade = Double.parseDouble(parser.getText());
+                    }
+                }
+                case Constants.NUMBER -> {
+                    if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                        action.number = readInt(parser);
+                    }
+                }
+                case Constants.FILTERS -> {
+                    if (parser.currentToken() == JsonToken.START_OBJECT) {
+                        readFilters(parser, action);
+                    } else if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                        throw unexpected(parser, "an object");
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return action;
+    }
+
+    private static void readFilters(final JsonParser parser, final RawAction action)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case Constants.GENRE -> action.filterGenre = readString(parser);
+                case Constants.YEAR -> action.year = readString(parser);
+                case Constants.AWARDS -> action.awards = readStringList(parser);
+                case Constants.WORDS -> action.words = readStringList(parser);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * @return the value, null only for an explicit JSON null
+     * @throws JsonParseException if the value is an array or an object
+     */
+    private static String readString(final JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!parser.currentToken().isScalarValue()) {
+            throw unexpected(parser, "a string");
+        }
+        return parser.getValueAsString();
+    }
+
+    /**
+     * Malformed input fails loudly, as it did with readData, instead of being
+     * read as a missing value
+     * @param expected kind of value expected for the field
+     * @return exception naming the field
+     */
+    private static JsonParseException unexpected(final JsonParser parser,
+                                                 final String expected) throws IOException {
+        return new JsonParseException(parser, "Expected " + expected + " for field \""
+                + fieldName(parser) + "\" but found " + parser.currentToken());
+    }
+
+    /**
+     * @return name of the field whose value is the current token(for an element
+     * of a list, the name of the list)
+     */
+    private static String fieldName(final JsonParser parser) {
+        JsonStreamContext context = parser.getParsingContext();
+        if (parser.currentToken().isStructStart()) {
+            context = context.getParent();
+        }
+        while (context != null && context.getCurrentName() == null) {
+            context = context.getParent();
+        }
+        return context == null ? null : context.getCurrentName();
+    }
+
+    private static int readInt(final JsonParser parser) throws IOException {
+        return Integer.parseInt(parser.getText());
+    }
+
+    /**
+     * @return the values, null only for an explicit JSON null
+     * @throws JsonParseException if the value is not an array of strings
+     */
+    private static ArrayList<String> readStringList(final JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw unexpected(parser, "an array");
+        }
+        ArrayList<String> list = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            list.add(readString(parser));
+        }
+        return list;
+    }
 }
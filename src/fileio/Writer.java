@@ -3,9 +3,18 @@ package fileio;
 import common.Constants;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
  * The class writes the output in files
@@ -13,13 +22,64 @@ import java.io.IOException;
  * DO NOT MODIFY
  */
 public final class Writer {
+    /**
+     * Size of the buffer used in streaming mode
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Initial capacity of the builder that holds one record
+     */
+    private static final int RECORD_CAPACITY = 256;
     /**
      * The file where the data will be written
      */
     private final FileWriter file;
+    /**
+     * The file where the records are written in streaming mode
+     */
+    private final FileChannel channel;
+    /**
+     * Buffer reused for all the records written in streaming mode
+     */
+    private final ByteBuffer buffer;
+    /**
+     * Builder reused for the text of each record in streaming mode
+     */
+    private final StringBuilder record;
+    /**
+     * Encoder with the same charset that FileWriter uses
+     */
+    private final CharsetEncoder encoder;
+    /**
+     * Number of records written in streaming mode
+     */
+    private int records;
 
     public Writer(final String path) throws IOException {
-        this.file = new FileWriter(path);
+        this(path, false);
+    }
+
+    /**
+     * @param path of the output file
+     * @param streaming true to write each record with writeRecord as soon as it
+     *                  is produced, instead of building a JSONArray for closeJSON
+     * @throws IOException in case of exceptions to writing
+     */
+    public Writer(final String path, final boolean streaming) throws IOException {
+        if (streaming) {
+            this.file = null;
+            this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            this.record = new StringBuilder(RECORD_CAPACITY);
+            this.encoder = Charset.defaultCharset().newEncoder();
+        } else {
+            this.file = new FileWriter(path);
+            this.channel = null;
+            this.buffer = null;
+            this.record = null;
+            this.encoder = null;
+        }
     }
 
     /**
@@ -54,4 +114,70 @@ public final class Writer {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Appends one {id, message} record to the output(streaming mode only).
+     * The text is the same that closeJSON would write for the record.
+     *
+     * @param id      of the action
+     * @param message to be written
+     * @throws IOException in case of exceptions to writing
+     */
+    public void writeRecord(final int id, final String message) throws IOException {
+        record.setLength(0);
+        record.append(records == 0 ? '[' : ',');
+        record.append("{\"").append(Constants.ID_STRING).append("\":").append(id);
+        record.append(",\"").append(Constants.MESSAGE).append("\":");
+        if (message == null) {
+            record.append("null");
+        } else {
+            record.append('"').append(JSONValue.escape(message)).append('"');
+        }
+        record.append('}');
+        records++;
+        encode(record);
+    }
+
+    /**
+     * Ends the JSON array, writes what is left in the buffer and closes the
+     * file(streaming mode only)
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    public void closeStream() throws IOException {
+        try {
+            record.setLength(0);
+            if (records == 0) {
+                record.append('[');
+            }
+            record.append(']');
+            encode(record);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void encode(final CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        encoder.reset();
+    }
 }
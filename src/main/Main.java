@@ -1,5 +1,9 @@
 package main;
 
+import action.CommandType;
+import action.ObjectType;
+import action.QueryCriteria;
+import action.RecommendationType;
 import checker.Checkstyle;
 import checker.Checker;
 import common.Constants;
@@ -16,19 +20,104 @@ import fileio.MovieInputData;
 import fileio.SerialInputData;
 import fileio.UserInputData;
 import fileio.Writer;
-import org.json.simple.JSONArray;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 /**
  * The entry point to this homework. It runs the checker that tests your implementation.
  */
 public final class Main {
+    /**
+     * Executes one action on the database
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    private interface Handler<T> {
+        /**
+         * @param db working Database
+         * @param action action parameters
+         * @return output text
+         */
+        T execute(MyDatabase db, ActionInputData action);
+    }
+
+    private static final EnumMap<CommandType, Handler<String>> COMMANDS =
+            new EnumMap<>(CommandType.class);
+    private static final EnumMap<QueryCriteria, Handler<StringBuilder>> QUERIES =
+            new EnumMap<>(QueryCriteria.class);
+    private static final EnumMap<RecommendationType, Handler<String>> RECOMMENDATIONS =
+            new EnumMap<>(RecommendationType.class);
+
+    static {
+        COMMANDS.put(CommandType.FAVORITE, (db, action) ->
+                db.addFavorite(db.getUser(action.getUsername()), action.getTitle()));
+        COMMANDS.put(CommandType.VIEW, (db, action) ->
+                db.view(db.getUser(action.getUsername()), action.getTitle()));
+        COMMANDS.put(CommandType.RATING, (db, action) -> {
+            UserData user = db.getUser(action.getUsername());
+            MovieData movie = db.searchMovie(action.getTitle());
+            if (movie != null) {
+                return db.rate(user, movie, action.getGrade());
+            }
+            SerialData serial = db.searchSerial(action.getTitle());
+            return db.rate(user, serial, action.getSeasonNumber(), action.getGrade());
+        });
+
+        QUERIES.put(QueryCriteria.FAVORITE, forVideos(
+                (db, action) -> db.queryFavoriteMovies(action.getFilters(),
+                        action.getSortType(), action.getNumber()),
+                (db, action) -> db.queryFavoriteSerials(action.getFilters(),
+                        action.getSortType(), action.getNumber())));
+        QUERIES.put(QueryCriteria.RATINGS, forVideos(
+                (db, action) -> db.queryRatingMovies(action.getFilters(),
+                        action.getSortType(), action.getNumber()),
+                (db, action) -> db.queryRatingSerials(action.getFilters(),
+                        action.getSortType(), action.getNumber())));
+        QUERIES.put(QueryCriteria.LONGEST, forVideos(
+                (db, action) -> db.queryLongestMovies(action.getFilters(),
+                        action.getSortType(), action.getNumber()),
+                (db, action) -> db.queryLongestSerials(action.getFilters(),
+                        action.getSortType(), action.getNumber())));
+        QUERIES.put(QueryCriteria.MOST_VIEWED, forVideos(
+                (db, action) -> db.queryMostViewedMovies(action.getFilters(),
+                        action.getSortType(), action.getNumber()),
+                (db, action) -> db.queryMostViewedSerials(action.getFilters(),
+                        action.getSortType(), action.getNumber())));
+        QUERIES.put(QueryCriteria.FILTER_DESCRIPTION, (db, action) ->
+                db.queryDescriptionActors(action.getFilters(), action.getSortType()));
+        QUERIES.put(QueryCriteria.AWARDS, (db, action) ->
+                db.queryAwardsActors(action.getFilters(), action.getSortType()));
+        QUERIES.put(QueryCriteria.NUM_RATINGS, (db, action) ->
+                db.queryUsers(action.getSortType(), action.getNumber()));
+        QUERIES.put(QueryCriteria.AVERAGE, (db, action) ->
+                db.queryAverageActors(action.getSortType(), action.getNumber()));
+
+        RECOMMENDATIONS.put(RecommendationType.STANDARD, (db, action) ->
+                db.getStandardRecommendation(db.getUser(action.getUsername())));
+        RECOMMENDATIONS.put(RecommendationType.BEST_UNSEEN, (db, action) ->
+                db.getBestUnseen(db.getUser(action.getUsername())));
+        RECOMMENDATIONS.put(RecommendationType.FAVORITE, (db, action) ->
+                db.getMostFavorite(db.getUser(action.getUsername())));
+        RECOMMENDATIONS.put(RecommendationType.SEARCH, (db, action) ->
+                db.getSearch(db.getUser(action.getUsername()), action.getGenre()).toString());
+        RECOMMENDATIONS.put(RecommendationType.POPULAR, (db, action) ->
+                db.getPopularRecommendation(db.getUser(action.getUsername())).toString());
+    }
+
     /**
      * for coding style
      */
@@ -37,7 +126,10 @@ public final class Main {
 
     /**
      * Call the main checker and the coding style checker
-     * @param args from command line
+     * @param args from command line(--pipeline runs every test with actionPipelined,
+     *             --parallel runs and checks the tests in parallel, see actionBatch
+     *             and Checker.iterateFilesParallel). With --parallel, the exit status
+     *             is 1 if a test could not be run
      * @throws IOException in case of exceptions to reading / writing
      */
     public static void main(final String[] args) throws IOException {
@@ -51,6 +143,9 @@ public final class Main {
 
         Checker checker = new Checker();
         checker.deleteFiles(outputDirectory.listFiles());
+        boolean pipelined = Arrays.asList(args).contains(Constants.PIPELINE_FLAG);
+        boolean parallel = Arrays.asList(args).contains(Constants.PARALLEL_FLAG);
+        Map<String, String> batch = new LinkedHashMap<>();
 
         for (File file : Objects.requireNonNull(directory.listFiles())) {
 
@@ -58,13 +153,30 @@ public final class Main {
             File out = new File(filepath);
             boolean isCreated = out.createNewFile();
             if (isCreated) {
-                action(file.getAbsolutePath(), filepath);
+                if (parallel) {
+                    batch.put(file.getAbsolutePath(), filepath);
+                } else if (pipelined) {
+                    actionPipelined(file.getAbsolutePath(), filepath);
+                } else {
+                    action(file.getAbsolutePath(), filepath);
+                }
             }
         }
-
-        checker.iterateFiles(Constants.RESULT_PATH, Constants.REF_PATH, Constants.TESTS_PATH);
+        int failed = actionBatch(batch, pipelined);
+
+        if (parallel) {
+            checker.iterateFilesParallel(Constants.RESULT_PATH, Constants.REF_PATH,
+                    Constants.TESTS_PATH);
+        } else {
+            checker.iterateFiles(Constants.RESULT_PATH, Constants.REF_PATH,
+                    Constants.TESTS_PATH);
+        }
         Checkstyle test = new Checkstyle();
         test.testCheckstyle();
+        if (failed != 0) {
+            // the files that failed were reported by actionBatch
+            System.exit(1);
+        }
     }
 
     /**
@@ -72,58 +184,144 @@ public final class Main {
      * @param filePath2 for output file
      * @throws IOException in case of exceptions to reading / writing
      */
-    @SuppressWarnings("unchecked")
     public static void action(final String filePath1,
                               final String filePath2) throws IOException {
         InputLoader inputLoader = new InputLoader(filePath1);
-        Input input = inputLoader.readData();
+        Input input = inputLoader.readDataStreaming();
 
-        Writer fileWriter = new Writer(filePath2);
-        JSONArray arrayResult = new JSONArray();
+        Writer fileWriter = new Writer(filePath2, true);
 
+        try {
+            MyDatabase db = buildDatabase(input);
+            for (ActionInputData currentAction : input.getCommands()) {
+                if (hasOutput(currentAction)) {
+                    fileWriter.writeRecord(currentAction.getActionId(),
+                            execute(db, currentAction));
+                }
+            }
+        } finally {
+            // ends the array and closes the file even if an action failed
+            fileWriter.closeStream();
+        }
+    }
+
+    /**
+     * Same as action, but parsing, execution and writing run on separate
+     * threads(see Pipeline)
+     * @param filePath1 for input file
+     * @param filePath2 for output file
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void actionPipelined(final String filePath1,
+                                       final String filePath2) throws IOException {
+        Pipeline.run(filePath1, filePath2);
+    }
+
+    /**
+     * Runs action(or actionPipelined) for every input file on a pool with one
+     * thread per core. Every file has its own database, so the files are
+     * independent: a file that fails is reported and the others still run.
+     * @param files input file -> output file
+     * @param pipelined true to run every file with actionPipelined
+     * @return number of files that failed
+     * @throws IOException if the thread is interrupted while waiting for the files
+     */
+    public static int actionBatch(final Map<String, String> files,
+                                  final boolean pipelined) throws IOException {
+        if (files.isEmpty()) {
+            return 0;
+        }
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), files.size());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Map<String, Future<?>> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                results.put(file.getKey(), pool.submit(() -> {
+                    if (pipelined) {
+                        actionPipelined(file.getKey(), file.getValue());
+                    } else {
+                        action(file.getKey(), file.getValue());
+                    }
+                    return null;
+                }));
+            }
+
+            int failed = 0;
+            for (Map.Entry<String, Future<?>> result : results.entrySet()) {
+                try {
+                    result.getValue().get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.err.println("FAILED " + result.getKey() + ": " + e.getCause());
+                    e.getCause().printStackTrace();
+                }
+            }
+            return failed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while running the batch");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the working database from the input: actors, movies, serials,
+     * then users
+     * @param input data read from the input file
+     * @return new database
+     */
+    public static MyDatabase buildDatabase(final Input input) {
         MyDatabase db = new MyDatabase();
         for (ActorInputData actor : input.getActors()) {
-            ActorData newActor = new ActorData(actor);
+            ActorData newActor = new ActorData(actor, db.getActorIds(), db.getTitleIds());
             db.add(newActor);
         }
 
         for (MovieInputData movie : input.getMovies()) {
-            MovieData newMovie = new MovieData(movie);
+            MovieData newMovie = new MovieData(movie, db.getTitleIds(), db.getActorIds());
             db.add(newMovie);
         }
 
         for (SerialInputData serial : input.getSerials()) {
-            SerialData newSerial = new SerialData(serial);
+            SerialData newSerial = new SerialData(serial, db.getTitleIds(), db.getActorIds());
             db.add(newSerial);
         }
 
         for (UserInputData user : input.getUsers()) {
-            UserData newUser = new UserData(user);
+            UserData newUser = new UserData(user, db.getUserIds(), db.getTitleIds());
             db.add(newUser);
         }
+        return db;
+    }
 
-        for (ActionInputData currentAction : input.getCommands()) {
-            if (currentAction.getType() != null) {
-                if (currentAction.getActionType().equals("command")) {
-                    String result = executeCommand(db, currentAction);
-                    arrayResult.add(fileWriter.writeFile(currentAction.getActionId(),
-                            null, result));
-                }
-            }
-
-            if (currentAction.getActionType() != null) {
-                if (currentAction.getActionType().equals("query")) {
-                    StringBuilder result = executeQuery(db, currentAction);
-                    arrayResult.add(fileWriter.writeFile(currentAction.getActionId(),
-                            null, "Query result: [" + result + "]"));
-                } else if (currentAction.getActionType().equals("recommendation")) {
-                    String result = executeRecommendation(db, currentAction);
-                    arrayResult.add(fileWriter.writeFile(currentAction.getActionId(),
-                            null, result));
-                }
-            }
+    /**
+     *
+     * @param currentAction action parameters
+     * @return true if the action writes a message to the output file
+     */
+    static boolean hasOutput(final ActionInputData currentAction) {
+        if (currentAction.getActionTypeEnum() == null) {
+            return false;
         }
-        fileWriter.closeJSON(arrayResult);
+        return switch (currentAction.getActionTypeEnum()) {
+            case COMMAND -> currentAction.getType() != null;
+            case QUERY, RECOMMENDATION -> true;
+        };
+    }
+
+    /**
+     * Executes an action that has output(see hasOutput)
+     * @param db working Database
+     * @param currentAction action parameters
+     * @return message to be written for the action
+     */
+    static String execute(final MyDatabase db, final ActionInputData currentAction) {
+        return switch (currentAction.getActionTypeEnum()) {
+            case COMMAND -> executeCommand(db, currentAction);
+            case QUERY -> "Query result: [" + executeQuery(db, currentAction) + "]";
+            case RECOMMENDATION -> executeRecommendation(db, currentAction);
+        };
     }
 
     /**
@@ -133,25 +331,11 @@ public final class Main {
      * @return output text
      */
     private static String executeCommand(final MyDatabase db, final ActionInputData currentAction) {
-        String result = null;
-        UserData user = db.getUser(currentAction.getUsername());
-        if (currentAction.getType().equals("favorite")) {
-            result = db.addFavorite(user, currentAction.getTitle());
-        }
-        if (currentAction.getType().equals("view")) {
-            result = db.view(user, currentAction.getTitle());
+        Handler<String> handler = COMMANDS.get(currentAction.getCommandType());
+        if (handler == null) {
+            return null;
         }
-        if (currentAction.getType().equals("rating")) {
-            MovieData movie = db.searchMovie(currentAction.getTitle());
-            if (movie != null) {
-                result = db.rate(user, movie, currentAction.getGrade());
-            } else {
-                SerialData serial = db.searchSerial(currentAction.getTitle());
-                result = db.rate(user, serial, currentAction.getSeasonNumber(),
-                        currentAction.getGrade());
-            }
-        }
-        return result;
+        return handler.execute(db, currentAction);
     }
 
     /**
@@ -162,76 +346,11 @@ public final class Main {
      */
     private static StringBuilder executeQuery(final MyDatabase db,
                                                 final ActionInputData currentAction) {
-        StringBuilder result = new StringBuilder();
-        if (currentAction.getCriteria().equals("favorite")) {
-            if (currentAction.getObjectType().equals("movies")) {
-                result = db.queryFavoriteMovies(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-
-            } else if (currentAction.getObjectType().equals("shows")) {
-                result = db.queryFavoriteSerials(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-            }
-        }
-
-        if (currentAction.getCriteria().equals("ratings")) {
-            if (currentAction.getObjectType().equals("movies")) {
-                result = db.queryRatingMovies(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-            } else if (currentAction.getObjectType().equals("shows")) {
-                result = db.queryRatingSerials(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-            }
-        }
-
-        if (currentAction.getCriteria().equals("longest")) {
-            if (currentAction.getObjectType().equals("movies")) {
-                result = db.queryLongestMovies(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-            } else if (currentAction.getObjectType().equals("shows")) {
-                result = db.queryLongestSerials(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-            }
-        }
-
-        if (currentAction.getCriteria().equals("most_viewed")) {
-            if (currentAction.getObjectType().equals("movies")) {
-                result = db.queryMostViewedMovies(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-            } else if (currentAction.getObjectType().equals("shows")) {
-                result = db.queryMostViewedSerials(
-                        currentAction.getFilters(), currentAction.getSortType(),
-                        currentAction.getNumber());
-            }
-        }
-
-        if (currentAction.getCriteria().equals("filter_description")) {
-            result = db.queryDescriptionActors(
-                    currentAction.getFilters(), currentAction.getSortType());
-        }
-
-        if (currentAction.getCriteria().equals("awards")) {
-            result = db.queryAwardsActors(
-                    currentAction.getFilters(), currentAction.getSortType());
-        }
-
-        if (currentAction.getCriteria().equals("num_ratings")) {
-            result = db.queryUsers(currentAction.getSortType(),
-                    currentAction.getNumber());
+        Handler<StringBuilder> handler = QUERIES.get(currentAction.getCriteriaEnum());
+        if (handler == null) {
+            return new StringBuilder();
         }
-
-        if (currentAction.getCriteria().equals("average")) {
-            result = db.queryAverageActors(currentAction.getSortType(),
-                    currentAction.getNumber());
-        }
-        return result;
+        return handler.execute(db, currentAction);
     }
 
     /**
@@ -242,37 +361,28 @@ public final class Main {
      */
     private static String executeRecommendation(final MyDatabase db,
                                                 final ActionInputData currentAction) {
-        StringBuilder result = new StringBuilder();
-        if (currentAction.getType().equals("standard")) {
-            UserData user = db.getUser(currentAction.getUsername());
-            result.append(db.getStandardRecommendation(user));
-
-        }
-
-        if (currentAction.getType().equals("best_unseen")) {
-            UserData user = db.getUser(currentAction.getUsername());
-            result.append(db.getBestUnseen(user));
-        }
-
-        if (currentAction.getType().equals("favorite")) {
-            UserData user = db.getUser(currentAction.getUsername());
-            result.append(db.getMostFavorite(user));
-        }
-
-        if (currentAction.getType().equals("search")) {
-            UserData user = db.getUser(currentAction.getUsername());
-            result = db.getSearch(user, currentAction.getGenre());
-        }
-
-        if (currentAction.getType().equals("popular")) {
-            UserData user = db.getUser(currentAction.getUsername());
-            result = db.getPopularRecommendation(user);
+        Handler<String> handler = RECOMMENDATIONS.get(currentAction.getRecommendationType());
+        if (handler == null) {
+            return "";
         }
-        return result.toString();
+        return handler.execute(db, currentAction);
     }
 
-
-
-
-
+    /**
+     * Builds the handler of a query criteria that applies to both movies and shows
+     * @param movies handler used when the object type is movies
+     * @param shows handler used when the object type is shows
+     * @return handler that dispatches on the object type
+     */
+    private static Handler<StringBuilder> forVideos(final Handler<StringBuilder> movies,
+                                                    final Handler<StringBuilder> shows) {
+        return (db, action) -> {
+            if (action.getObjectTypeEnum() == ObjectType.MOVIES) {
+                return movies.execute(db, action);
+            } else if (action.getObjectTypeEnum() == ObjectType.SHOWS) {
+                return shows.execute(db, action);
+            }
+            return new StringBuilder();
+        };
+    }
 }
@@ -0,0 +1,211 @@
+package main;
+
+import databases.MyDatabase;
+import fileio.ActionInputData;
+import fileio.Input;
+import fileio.InputLoader;
+import fileio.Writer;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs one test file as three stages connected by bounded queues:
+ * a parser thread reads the database and the actions, the calling thread
+ * executes the actions on the database, one by one, in input order, and a
+ * writer thread writes the messages to the output file.
+ * Actions are executed in the same order as in Main.action, so the output is
+ * identical; only parsing and writing overlap with the execution.
+ */
+final class Pipeline {
+    private static final int ACTION_QUEUE_CAPACITY = 1024;
+    private static final int RECORD_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Marks the end of the actions, compared by reference
+     */
+    private static final ActionInputData END_OF_ACTIONS =
+            new ActionInputData(-1, null, null, null, null, 0.0, 0);
+
+    /**
+     * Marks the end of the records, compared by reference
+     */
+    private static final Record END_OF_RECORDS = new Record(-1, null);
+
+    /**
+     * for coding style
+     */
+    private Pipeline() {
+    }
+
+    /**
+     * Message of an action, waiting to be written
+     */
+    private static final class Record {
+        private final int id;
+        private final String message;
+
+        Record(final int id, final String message) {
+            this.id = id;
+            this.message = message;
+        }
+    }
+
+    /**
+     * @param inputPath for input file
+     * @param outputPath for output file
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    static void run(final String inputPath, final String outputPath) throws IOException {
+        BlockingQueue<ActionInputData> actions = new ArrayBlockingQueue<>(ACTION_QUEUE_CAPACITY);
+        BlockingQueue<Record> records = new ArrayBlockingQueue<>(RECORD_QUEUE_CAPACITY);
+        CompletableFuture<Input> database = new CompletableFuture<>();
+        Writer fileWriter = new Writer(outputPath, true);
+
+        // Errors are caught as well: a stage that stopped early would leave the
+        // others blocked on a full or empty queue
+        AtomicReference<Throwable> parserFailure = new AtomicReference<>();
+        Thread parser = new Thread(() -> {
+            try {
+                new InputLoader(inputPath).readDataStreaming(database::complete,
+                        action -> put(actions, action));
+            } catch (Throwable e) {
+                parserFailure.set(e);
+            } finally {
+                // the executor waits for both, even if the input could not be read
+                database.complete(null);
+                put(actions, END_OF_ACTIONS);
+            }
+        }, "pipeline-parser");
+
+        AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            // keeps taking records after a failure, so the executor never blocks
+            for (Record record = take(records); record != END_OF_RECORDS;
+                 record = take(records)) {
+                if (writerFailure.get() == null) {
+                    try {
+                        fileWriter.writeRecord(record.id, record.message);
+                    } catch (Throwable e) {
+                        writerFailure.set(e);
+                    }
+                }
+            }
+            try {
+                fileWriter.closeStream();
+            } catch (Throwable e) {
+                writerFailure.compareAndSet(null, e);
+            }
+        }, "pipeline-writer");
+
+        parser.start();
+        writer.start();
+
+        Throwable failure = null;
+        try {
+            MyDatabase db = null;
+            try {
+                db = Main.buildDatabase(database.join());
+            } catch (Throwable e) {
+                failure = e;
+            }
+            // keeps taking actions after a failure, so the parser never blocks
+            for (ActionInputData action = take(actions); action != END_OF_ACTIONS;
+                 action = take(actions)) {
+                if (failure == null && Main.hasOutput(action)) {
+                    try {
+                        put(records, new Record(action.getActionId(), Main.execute(db, action)));
+                    } catch (Throwable e) {
+                        failure = e;
+                    }
+                }
+            }
+        } finally {
+            put(records, END_OF_RECORDS);
+            join(parser);
+            join(writer);
+        }
+
+        rethrow(parserFailure.get());
+        rethrow(failure);
+        rethrow(writerFailure.get());
+    }
+
+    /**
+     * Throws the failure of a stage, if there is one
+     * @param failure IOException, RuntimeException or Error, may be null
+     * @throws IOException if the failure is one
+     */
+    private static void rethrow(final Throwable failure) throws IOException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    /**
+     * Same as queue.put, but waits until the item is added even if the
+     * thread is interrupted(the interrupt status is restored afterwards)
+     */
+    private static <T> void put(final BlockingQueue<T> queue, final T item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Same as queue.take, but waits for an item even if the thread is
+     * interrupted(the interrupt status is restored afterwards)
+     */
+    private static <T> T take(final BlockingQueue<T> queue) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void join(final Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
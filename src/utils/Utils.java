@@ -1,5 +1,10 @@
 package utils;
 
+import action.ActionType;
+import action.CommandType;
+import action.ObjectType;
+import action.QueryCriteria;
+import action.RecommendationType;
 import actor.ActorsAwards;
 import common.Constants;
 import entertainment.Genre;
@@ -7,6 +12,7 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.LinkedHashMap;
 
@@ -16,6 +22,41 @@ import java.util.LinkedHashMap;
  * We suggest you add your static methods here or in a similar class.
  */
 public final class Utils {
+    /**
+     * Genres, by their spelling in the input files
+     */
+    private static final Map<String, Genre> GENRES = new HashMap<>();
+    /**
+     * Genres, by their spelling in lower case
+     */
+    private static final Map<String, Genre> GENRES_IGNORE_CASE = new HashMap<>();
+
+    static {
+        GENRES.put("Action", Genre.ACTION);
+        GENRES.put("Adventure", Genre.ADVENTURE);
+        GENRES.put("Drama", Genre.DRAMA);
+        GENRES.put("Comedy", Genre.COMEDY);
+        GENRES.put("Crime", Genre.CRIME);
+        GENRES.put("Romance", Genre.ROMANCE);
+        GENRES.put("War", Genre.WAR);
+        GENRES.put("History", Genre.HISTORY);
+        GENRES.put("Thriller", Genre.THRILLER);
+        GENRES.put("Mystery", Genre.MYSTERY);
+        GENRES.put("Family", Genre.FAMILY);
+        GENRES.put("Horror", Genre.HORROR);
+        GENRES.put("Fantasy", Genre.FANTASY);
+        GENRES.put("Science Fiction", Genre.SCIENCE_FICTION);
+        GENRES.put("Action & Adventure", Genre.ACTION_ADVENTURE);
+        GENRES.put("Sci-Fi & Fantasy", Genre.SCI_FI_FANTASY);
+        GENRES.put("Animation", Genre.ANIMATION);
+        GENRES.put("Kids", Genre.KIDS);
+        GENRES.put("Western", Genre.WESTERN);
+        GENRES.put("TV Movie", Genre.TV_MOVIE);
+        for (Map.Entry<String, Genre> genre : GENRES.entrySet()) {
+            GENRES_IGNORE_CASE.put(genre.getKey().toLowerCase(), genre.getValue());
+        }
+    }
+
     /**
      * for coding style
      */
@@ -28,29 +69,16 @@ public final class Utils {
      * @return an Genre Enum
      */
     public static Genre stringToGenre(final String genre) {
-        return switch (genre.toLowerCase()) {
-            case "action" -> Genre.ACTION;
-            case "adventure" -> Genre.ADVENTURE;
-            case "drama" -> Genre.DRAMA;
-            case "comedy" -> Genre.COMEDY;
-            case "crime" -> Genre.CRIME;
-            case "romance" -> Genre.ROMANCE;
-            case "war" -> Genre.WAR;
-            case "history" -> Genre.HISTORY;
-            case "thriller" -> Genre.THRILLER;
-            case "mystery" -> Genre.MYSTERY;
-            case "family" -> Genre.FAMILY;
-            case "horror" -> Genre.HORROR;
-            case "fantasy" -> Genre.FANTASY;
-            case "science fiction" -> Genre.SCIENCE_FICTION;
-            case "action & adventure" -> Genre.ACTION_ADVENTURE;
-            case "sci-fi & fantasy" -> Genre.SCI_FI_FANTASY;
-            case "animation" -> Genre.ANIMATION;
-            case "kids" -> Genre.KIDS;
-            case "western" -> Genre.WESTERN;
-            case "tv movie" -> Genre.TV_MOVIE;
-            default -> null;
-        };
+        return GENRES_IGNORE_CASE.get(genre.toLowerCase());
+    }
+
+    /**
+     * Same as stringToGenre, but case sensitive
+     * @param genre of video, may be null
+     * @return the Genre spelled exactly as genre in the input files, null if there is none
+     */
+    public static Genre stringToGenreExact(final String genre) {
+        return GENRES.get(genre);
     }
 
     /**
@@ -69,6 +97,99 @@ public final class Utils {
         };
     }
 
+    /**
+     * Transforms a string into an enum
+     * @param actionType type of action
+     * @return an ActionType Enum
+     */
+    public static ActionType stringToActionType(final String actionType) {
+        if (actionType == null) {
+            return null;
+        }
+        return switch (actionType) {
+            case "command" -> ActionType.COMMAND;
+            case "query" -> ActionType.QUERY;
+            case "recommendation" -> ActionType.RECOMMENDATION;
+            default -> null;
+        };
+    }
+
+    /**
+     * Transforms a string into an enum
+     * @param type type of command
+     * @return a CommandType Enum
+     */
+    public static CommandType stringToCommandType(final String type) {
+        if (type == null) {
+            return null;
+        }
+        return switch (type) {
+            case "favorite" -> CommandType.FAVORITE;
+            case "view" -> CommandType.VIEW;
+            case "rating" -> CommandType.RATING;
+            default -> null;
+        };
+    }
+
+    /**
+     * Transforms a string into an enum
+     * @param criteria criteria of a query
+     * @return a QueryCriteria Enum
+     */
+    public static QueryCriteria stringToCriteria(final String criteria) {
+        if (criteria == null) {
+            return null;
+        }
+        return switch (criteria) {
+            case "favorite" -> QueryCriteria.FAVORITE;
+            case "ratings" -> QueryCriteria.RATINGS;
+            case "longest" -> QueryCriteria.LONGEST;
+            case "most_viewed" -> QueryCriteria.MOST_VIEWED;
+            case "filter_description" -> QueryCriteria.FILTER_DESCRIPTION;
+            case "awards" -> QueryCriteria.AWARDS;
+            case "num_ratings" -> QueryCriteria.NUM_RATINGS;
+            case "average" -> QueryCriteria.AVERAGE;
+            default -> null;
+        };
+    }
+
+    /**
+     * Transforms a string into an enum
+     * @param objectType object type of a query
+     * @return an ObjectType Enum
+     */
+    public static ObjectType stringToObjectType(final String objectType) {
+        if (objectType == null) {
+            return null;
+        }
+        return switch (objectType) {
+            case "movies" -> ObjectType.MOVIES;
+            case "shows" -> ObjectType.SHOWS;
+            case "actors" -> ObjectType.ACTORS;
+            case "users" -> ObjectType.USERS;
+            default -> null;
+        };
+    }
+
+    /**
+     * Transforms a string into an enum
+     * @param type type of recommendation
+     * @return a RecommendationType Enum
+     */
+    public static RecommendationType stringToRecommendationType(final String type) {
+        if (type == null) {
+            return null;
+        }
+        return switch (type) {
+            case "standard" -> RecommendationType.STANDARD;
+            case "best_unseen" -> RecommendationType.BEST_UNSEEN;
+            case "favorite" -> RecommendationType.FAVORITE;
+            case "search" -> RecommendationType.SEARCH;
+            case "popular" -> RecommendationType.POPULAR;
+            default -> null;
+        };
+    }
+
     /**
      * Transforms an array of JSON's into an array of strings
      * @param array of JSONs